@@ -0,0 +1,130 @@
+package com.chess.engine.board;
+
+/**
+ * Attack sets computed straight from piece bitboards, shared by {@link Board}
+ * and {@link SearchBoard}. Sliding attacks come from {@link MagicBitboards},
+ * the others from {@link JumpTables}.
+ * Colors are passed as {@code Color.ordinal()} and piece bitboards are
+ * indexed by {@link BoardUtils#pieceIndex}.
+ */
+public final class Attacks {
+	private static final int PAWN = 0;
+	private static final int KNIGHT = 1;
+	private static final int BISHOP = 2;
+	private static final int ROOK = 3;
+	private static final int QUEEN = 4;
+	private static final int KING = 5;
+	private static final long[][] BETWEEN = new long[BoardUtils.NUM_TILES][BoardUtils.NUM_TILES];
+	private static final long[][] LINE = new long[BoardUtils.NUM_TILES][BoardUtils.NUM_TILES];
+
+	static {
+		for (int from = 0; from < BoardUtils.NUM_TILES; from++) {
+			for (int to = 0; to < BoardUtils.NUM_TILES; to++) {
+				final long fromMask = BoardUtils.squareMask(from);
+				final long toMask = BoardUtils.squareMask(to);
+				if ((rookAttacks(from, BoardUtils.EMPTY_BITBOARD) & toMask) != 0) {
+					BETWEEN[from][to] = rookAttacks(from, toMask) & rookAttacks(to, fromMask);
+					LINE[from][to] = (rookAttacks(from, BoardUtils.EMPTY_BITBOARD) &
+							rookAttacks(to, BoardUtils.EMPTY_BITBOARD)) | fromMask | toMask;
+				} else if ((bishopAttacks(from, BoardUtils.EMPTY_BITBOARD) & toMask) != 0) {
+					BETWEEN[from][to] = bishopAttacks(from, toMask) & bishopAttacks(to, fromMask);
+					LINE[from][to] = (bishopAttacks(from, BoardUtils.EMPTY_BITBOARD) &
+							bishopAttacks(to, BoardUtils.EMPTY_BITBOARD)) | fromMask | toMask;
+				}
+			}
+		}
+	}
+
+	private Attacks() {
+		throw new RuntimeException("Cannot instantiate Attacks");
+	}
+
+	public static long pawnAttacks(final int color, final int square) {
+		return JumpTables.pawnAttackMask(color, square);
+	}
+
+	public static long knightAttacks(final int square) {
+		return JumpTables.knightMask(square);
+	}
+
+	public static long kingAttacks(final int square) {
+		return JumpTables.kingMask(square);
+	}
+
+	public static long rookAttacks(final int square, final long occupancy) {
+		return MagicBitboards.rookAttacks(square, occupancy);
+	}
+
+	public static long bishopAttacks(final int square, final long occupancy) {
+		return MagicBitboards.bishopAttacks(square, occupancy);
+	}
+
+	public static long queenAttacks(final int square, final long occupancy) {
+		return rookAttacks(square, occupancy) | bishopAttacks(square, occupancy);
+	}
+
+	/** Squares strictly between two squares on a shared rank, file or diagonal, otherwise empty. */
+	public static long between(final int from, final int to) {
+		return BETWEEN[from][to];
+	}
+
+	/** The whole rank, file or diagonal through two squares, otherwise empty. */
+	public static long line(final int from, final int to) {
+		return LINE[from][to];
+	}
+
+	public static boolean isSquareAttacked(final int square, final int byColor,
+										   final long[] pieceBitBoards, final long occupancy) {
+		final int offset = byColor * BoardUtils.NUM_PIECE_TYPES;
+		final long queens = pieceBitBoards[offset + QUEEN];
+		return (pawnAttacks(byColor ^ 1, square) & pieceBitBoards[offset + PAWN]) != 0 ||
+			   (knightAttacks(square) & pieceBitBoards[offset + KNIGHT]) != 0 ||
+			   (kingAttacks(square) & pieceBitBoards[offset + KING]) != 0 ||
+			   (rookAttacks(square, occupancy) & (pieceBitBoards[offset + ROOK] | queens)) != 0 ||
+			   (bishopAttacks(square, occupancy) & (pieceBitBoards[offset + BISHOP] | queens)) != 0;
+	}
+
+	public static long attackersTo(final int square, final int byColor,
+								   final long[] pieceBitBoards, final long occupancy) {
+		final int offset = byColor * BoardUtils.NUM_PIECE_TYPES;
+		final long queens = pieceBitBoards[offset + QUEEN];
+		return (pawnAttacks(byColor ^ 1, square) & pieceBitBoards[offset + PAWN]) |
+			   (knightAttacks(square) & pieceBitBoards[offset + KNIGHT]) |
+			   (kingAttacks(square) & pieceBitBoards[offset + KING]) |
+			   (rookAttacks(square, occupancy) & (pieceBitBoards[offset + ROOK] | queens)) |
+			   (bishopAttacks(square, occupancy) & (pieceBitBoards[offset + BISHOP] | queens));
+	}
+
+	public static long attackMap(final int color, final long[] pieceBitBoards, final long occupancy) {
+		final int offset = color * BoardUtils.NUM_PIECE_TYPES;
+		long attacks = BoardUtils.EMPTY_BITBOARD;
+		for (int pieceType = PAWN; pieceType <= KING; pieceType++) {
+			long pieces = pieceBitBoards[offset + pieceType];
+			while (pieces != 0) {
+				attacks |= attacksFrom(pieceType, color, Long.numberOfTrailingZeros(pieces), occupancy);
+				pieces &= pieces - 1;
+			}
+		}
+		return attacks;
+	}
+
+	public static long attacksFrom(final int pieceType, final int color, final int square, final long occupancy) {
+		switch (pieceType) {
+			case PAWN:
+				return pawnAttacks(color, square);
+			case KNIGHT:
+				return knightAttacks(square);
+			case BISHOP:
+				return bishopAttacks(square, occupancy);
+			case ROOK:
+				return rookAttacks(square, occupancy);
+			case QUEEN:
+				return queenAttacks(square, occupancy);
+			case KING:
+				return kingAttacks(square);
+			default:
+				throw new RuntimeException("Not a valid piece type: " + pieceType);
+		}
+	}
+
+}
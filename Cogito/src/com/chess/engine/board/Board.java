@@ -5,9 +5,8 @@ package com.chess.engine.board;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.List;
-import java.util.Map;
 
 import com.chess.engine.pieces.Bishop;
 import com.chess.engine.pieces.Color;
@@ -15,6 +14,8 @@ import com.chess.engine.pieces.King;
 import com.chess.engine.pieces.Knight;
 import com.chess.engine.pieces.Pawn;
 import com.chess.engine.pieces.Piece;
+import com.chess.engine.pieces.PieceCache;
+import com.chess.engine.pieces.Piece.PieceType;
 import com.chess.engine.pieces.Queen;
 import com.chess.engine.pieces.Rook;
 import com.chess.engine.player.BlackPlayer;
@@ -25,23 +26,77 @@ import com.google.common.collect.Iterables;
 
 
 public class Board {
-	private final List<Tile> gameBoard;
-	private final Collection<Piece> whitePieces;
-	private final Collection<Piece> blackPieces;
+	/** FEN letters in {@link PieceType} order, and castling letters in castling-right bit order. */
+	static final String FEN_PIECES = "PNBRQK";
+	static final String FEN_CASTLING = "KQkq";
+	private static final PieceType[] PIECE_TYPES = PieceType.values();
+	/** Slots of the per-colour legality masks. */
+	private static final int CHECK_MASK = 0;
+	private static final int PINNED = 1;
+	private static final int KING_TARGETS = 2;
+	private static final long ALL_SQUARES = ~BoardUtils.EMPTY_BITBOARD;
+	
+	private final long[] pieceBitBoards;
+	private final long whiteOccupancy;
+	private final long blackOccupancy;
+	private final long allOccupancy;
+	private final Piece[] boardPieces;
 	private final WhitePlayer whitePlayer;
 	private final BlackPlayer blackPlayer;
 	private final Player currentPlayer;
 	private final Pawn enPassantPawn;
+	private final int castlingRights;
+	private final int halfMoveClock;
+	private final int fullMoveNumber;
+	private final long zobristKey;
+	private final int[] kingSquares;
+	private List<Tile> gameBoard;
+	private Collection<Piece> whitePieces;
+	private Collection<Piece> blackPieces;
+	private final List<Collection<Piece>> pieceLists;
+	private final long[][] legalityMasks;
+	private Collection<Move> whiteStandardLegalMoves;
+	private Collection<Move> blackStandardLegalMoves;
+	private long[] attackMaps;
 	
 	private Board(final BoardBuilder builder) {
-		this.gameBoard = createGameBoard(builder);
-		this.whitePieces = calculateActivePieces(builder, Color.WHITE);
-		this.blackPieces = calculateActivePieces(builder, Color.BLACK);
+		this.boardPieces = builder.boardConfig.clone();
+		this.pieceBitBoards = new long[BoardUtils.NUM_PIECE_INDEXES];
+		long whiteBits = BoardUtils.EMPTY_BITBOARD;
+		long blackBits = BoardUtils.EMPTY_BITBOARD;
+		for (int i = 0; i < BoardUtils.NUM_TILES; i++) {
+			final Piece piece = this.boardPieces[i];
+			if (piece != null) {
+				final long squareMask = BoardUtils.squareMask(i);
+				this.pieceBitBoards[BoardUtils.pieceIndex(piece)] |= squareMask;
+				if (piece.getPieceColor().isWhite()) {
+					whiteBits |= squareMask;
+				} else {
+					blackBits |= squareMask;
+				}
+			}
+		}
+		this.whiteOccupancy = whiteBits;
+		this.blackOccupancy = blackBits;
+		this.allOccupancy = whiteBits | blackBits;
+		this.kingSquares = new int[] {
+				Long.numberOfTrailingZeros(this.pieceBitBoards[BoardUtils.pieceIndex(Color.WHITE, PieceType.KING)]),
+				Long.numberOfTrailingZeros(this.pieceBitBoards[BoardUtils.pieceIndex(Color.BLACK, PieceType.KING)]) };
+		this.pieceLists = new ArrayList<>(Collections.<Collection<Piece>>nCopies(BoardUtils.NUM_PIECE_INDEXES, null));
+		this.legalityMasks = new long[2][];
 		this.enPassantPawn = builder.enPassantPawn;
-		final Collection<Move> whiteStandardLegalMoves = calculateLegalMoves(this.whitePieces);
-		final Collection<Move> blackStandardLegalMoves = calculateLegalMoves(this.blackPieces);
-		this.whitePlayer = new WhitePlayer(this, whiteStandardLegalMoves, blackStandardLegalMoves);
-		this.blackPlayer = new BlackPlayer(this, whiteStandardLegalMoves, blackStandardLegalMoves);
+		this.castlingRights = calculateCastlingRights(this.boardPieces);
+		this.halfMoveClock = builder.halfMoveClock;
+		this.fullMoveNumber = builder.fullMoveNumber;
+		this.zobristKey = builder.hasZobristKey ? builder.zobristKey :
+				Zobrist.calculateKey(this.boardPieces, builder.nextMoveMaker,
+									 this.castlingRights, this.enPassantPawn);
+		assert !builder.hasZobristKey || this.zobristKey == Zobrist.calculateKey(this.boardPieces,
+				builder.nextMoveMaker, this.castlingRights, this.enPassantPawn) :
+				"Incremental zobrist key out of sync";
+		this.whitePlayer = new WhitePlayer(this);
+		this.blackPlayer = new BlackPlayer(this);
+		MoveGenerationStats.boardCreated();
 		this.currentPlayer = builder.nextMoveMaker.choosePlayer(this.whitePlayer, this.blackPlayer);
 	}
 	
@@ -61,24 +116,258 @@ public class Board {
 		return this.enPassantPawn;
 	}
 	
+	public int getCastlingRights() {
+		return this.castlingRights;
+	}
+	
+	public int getHalfMoveClock() {
+		return this.halfMoveClock;
+	}
+	
+	public int getFullMoveNumber() {
+		return this.fullMoveNumber;
+	}
+	
+	public long zobristKey() {
+		return this.zobristKey;
+	}
+	
+	public Piece getPiece(final int tileCoordinate) {
+		return this.boardPieces[tileCoordinate];
+	}
+	
+	public boolean isTileOccupied(final int tileCoordinate) {
+		return (this.allOccupancy & BoardUtils.squareMask(tileCoordinate)) != 0;
+	}
+	
+	public long getPieceBitBoard(final Color color, final PieceType pieceType) {
+		return this.pieceBitBoards[BoardUtils.pieceIndex(color, pieceType)];
+	}
+	
+	/** Returns the square of the given king, or {@link BoardUtils#NUM_TILES} if there is none. */
+	public int getKingSquare(final Color color) {
+		return this.kingSquares[color.ordinal()];
+	}
+	
+	public long getOccupancy(final Color color) {
+		return color.isWhite() ? this.whiteOccupancy : this.blackOccupancy;
+	}
+	
+	public long getAllOccupancy() {
+		return this.allOccupancy;
+	}
+	
+	public boolean isSquareAttacked(final int tileCoordinate, final Color byColor) {
+		return Attacks.isSquareAttacked(tileCoordinate, byColor.ordinal(), this.pieceBitBoards, this.allOccupancy);
+	}
+	
+	/**
+	 * Whether the move would leave the mover's king attacked, answered from
+	 * the bitboards with the move applied to the occupancy, without building
+	 * the next board.
+	 */
+	public boolean leavesKingInCheck(final Move move) {
+		final Color color = move.getMovedPiece().getPieceColor();
+		final int from = move.getCurrentCoordinate();
+		final int to = move.getDestinationCoordinate();
+		final int kingSquare = move.getMovedPiece().getPieceType().isKing() ? to : getKingSquare(color);
+		long occupancy = (this.allOccupancy & ~BoardUtils.squareMask(from)) | BoardUtils.squareMask(to);
+		long captured = BoardUtils.EMPTY_BITBOARD;
+		if (move.isAttack()) {
+			captured = BoardUtils.squareMask(move.getAttackedPiece().getPiecePosition());
+			occupancy = (occupancy & ~captured) | BoardUtils.squareMask(to);
+		} else if (move.isCastlingMove()) {
+			final Move.CastleMove castleMove = (Move.CastleMove) move;
+			occupancy = (occupancy & ~BoardUtils.squareMask(castleMove.castleRookStart)) |
+					BoardUtils.squareMask(castleMove.castleRookDestination);
+		}
+		return (Attacks.attackersTo(kingSquare, color.ordinal() ^ 1, this.pieceBitBoards, occupancy) &
+				~captured) != 0;
+	}
+	
+	/**
+	 * Destinations that keep the piece's own king safe. A king may go to any
+	 * neighbouring square the enemy does not attack once the king has left
+	 * its square. Any other piece must capture or block a single checker,
+	 * has nowhere to go in double check, and stays on its pin line if it is
+	 * pinned. En passant is not covered and is checked with
+	 * {@link #leavesKingInCheck}.
+	 */
+	public long getLegalDestinations(final Piece piece) {
+		final long[] masks = getLegalityMasks(piece.getPieceColor());
+		if (piece.getPieceType().isKing()) {
+			return masks[KING_TARGETS];
+		}
+		final long pieceMask = BoardUtils.squareMask(piece.getPiecePosition());
+		if ((masks[PINNED] & pieceMask) != 0) {
+			return masks[CHECK_MASK] & Attacks.line(getKingSquare(piece.getPieceColor()), piece.getPiecePosition());
+		}
+		return masks[CHECK_MASK];
+	}
+	
+	private long[] getLegalityMasks(final Color color) {
+		long[] masks = this.legalityMasks[color.ordinal()];
+		if (masks == null) {
+			masks = calculateLegalityMasks(color);
+			this.legalityMasks[color.ordinal()] = masks;
+		}
+		return masks;
+	}
+	
+	private long[] calculateLegalityMasks(final Color color) {
+		final int kingSquare = getKingSquare(color);
+		if (kingSquare == BoardUtils.NUM_TILES) {
+			return new long[] { ALL_SQUARES, BoardUtils.EMPTY_BITBOARD, BoardUtils.EMPTY_BITBOARD };
+		}
+		final int opponent = color.ordinal() ^ 1;
+		final long ownPieces = getOccupancy(color);
+		final long enemyPieces = this.allOccupancy & ~ownPieces;
+		final long checkers = Attacks.attackersTo(kingSquare, opponent, this.pieceBitBoards, this.allOccupancy);
+		final long checkMask;
+		if (checkers == 0) {
+			checkMask = ALL_SQUARES;
+		} else if (Long.bitCount(checkers) == 1) {
+			checkMask = checkers | Attacks.between(kingSquare, Long.numberOfTrailingZeros(checkers));
+		} else {
+			checkMask = BoardUtils.EMPTY_BITBOARD;
+		}
+		final int enemyOffset = opponent * BoardUtils.NUM_PIECE_TYPES;
+		final long enemyQueens = this.pieceBitBoards[enemyOffset + PieceType.QUEEN.ordinal()];
+		long snipers = (Attacks.rookAttacks(kingSquare, enemyPieces) &
+				(this.pieceBitBoards[enemyOffset + PieceType.ROOK.ordinal()] | enemyQueens)) |
+				(Attacks.bishopAttacks(kingSquare, enemyPieces) &
+				(this.pieceBitBoards[enemyOffset + PieceType.BISHOP.ordinal()] | enemyQueens));
+		long pinned = BoardUtils.EMPTY_BITBOARD;
+		while (snipers != 0) {
+			final long blockers = Attacks.between(kingSquare, Long.numberOfTrailingZeros(snipers)) & this.allOccupancy;
+			if (Long.bitCount(blockers) == 1 && (blockers & ownPieces) != 0) {
+				pinned |= blockers;
+			}
+			snipers &= snipers - 1;
+		}
+		final long occupancyWithoutKing = this.allOccupancy & ~BoardUtils.squareMask(kingSquare);
+		long kingTargets = BoardUtils.EMPTY_BITBOARD;
+		long candidates = Attacks.kingAttacks(kingSquare) & ~ownPieces;
+		while (candidates != 0) {
+			final int target = Long.numberOfTrailingZeros(candidates);
+			if (Attacks.attackersTo(target, opponent, this.pieceBitBoards, occupancyWithoutKing) == 0) {
+				kingTargets |= BoardUtils.squareMask(target);
+			}
+			candidates &= candidates - 1;
+		}
+		return new long[] { checkMask, pinned, kingTargets };
+	}
+	
+	/**
+	 * Pieces that can have a legal move while their king is in check: the
+	 * king, and in single check the unpinned pieces that can capture the
+	 * checker or step between it and the king, by attack, pawn push or en
+	 * passant. In double check only the king can move.
+	 */
+	private long calculateEvasionCandidates(final Color color) {
+		final long[] masks = getLegalityMasks(color);
+		final long king = getPieceBitBoard(color, PieceType.KING);
+		final long checkMask = masks[CHECK_MASK];
+		if (checkMask == BoardUtils.EMPTY_BITBOARD) {
+			return king;
+		}
+		long candidates = king;
+		long targets = checkMask;
+		while (targets != 0) {
+			candidates |= Attacks.attackersTo(Long.numberOfTrailingZeros(targets), color.ordinal(),
+					this.pieceBitBoards, this.allOccupancy);
+			targets &= targets - 1;
+		}
+		final boolean enPassantEvades = this.enPassantPawn != null &&
+				(checkMask & BoardUtils.squareMask(this.enPassantPawn.getPiecePosition())) != 0;
+		long pawns = getPieceBitBoard(color, PieceType.PAWN) & ~candidates;
+		while (pawns != 0) {
+			final int from = Long.numberOfTrailingZeros(pawns);
+			final int push = JumpTables.pawnPushDestination(color.ordinal(), from);
+			final int jump = JumpTables.pawnJumpDestination(color.ordinal(), from);
+			if ((push != JumpTables.NO_SQUARE && (checkMask & BoardUtils.squareMask(push)) != 0) ||
+					(jump != JumpTables.NO_SQUARE && (checkMask & BoardUtils.squareMask(jump)) != 0) ||
+					(enPassantEvades && (Attacks.pawnAttacks(color.ordinal(), from) &
+							BoardUtils.squareMask(this.enPassantPawn.getPiecePosition() -
+							this.enPassantPawn.getPieceColor().getDirection() * BoardUtils.NUM_TILES_PER_ROW)) != 0)) {
+				candidates |= BoardUtils.squareMask(from);
+			}
+			pawns &= pawns - 1;
+		}
+		return candidates & ~masks[PINNED];
+	}
+	
+	public long getAttackMap(final Color color) {
+		long[] maps = this.attackMaps;
+		if (maps == null) {
+			maps = new long[] {
+					Attacks.attackMap(Color.WHITE.ordinal(), this.pieceBitBoards, this.allOccupancy),
+					Attacks.attackMap(Color.BLACK.ordinal(), this.pieceBitBoards, this.allOccupancy) };
+			this.attackMaps = maps;
+		}
+		return maps[color.ordinal()];
+	}
+	
 	public Tile getTile(final int tileCoordinate) {
-		return this.gameBoard.get(tileCoordinate);
+		return getGameBoard().get(tileCoordinate);
 	}
 	
 	public List<Tile> getGameBoard() {
-		return this.gameBoard;
+		List<Tile> tiles = this.gameBoard;
+		if (tiles == null) {
+			tiles = createGameBoard(this.boardPieces);
+			this.gameBoard = tiles;
+		}
+		return tiles;
 	}
 	
 	public Collection<Piece> getBlackPieces() {
-		return this.blackPieces;
+		Collection<Piece> pieces = this.blackPieces;
+		if (pieces == null) {
+			pieces = calculateActivePieces(this.blackOccupancy);
+			this.blackPieces = pieces;
+		}
+		return pieces;
 	}
 	
 	public Collection<Piece> getWhitePieces() {
-		return this.whitePieces;
+		Collection<Piece> pieces = this.whitePieces;
+		if (pieces == null) {
+			pieces = calculateActivePieces(this.whiteOccupancy);
+			this.whitePieces = pieces;
+		}
+		return pieces;
+	}
+	
+	public Collection<Piece> getPieces(final Color color, final PieceType pieceType) {
+		final int pieceIndex = BoardUtils.pieceIndex(color, pieceType);
+		Collection<Piece> pieces = this.pieceLists.get(pieceIndex);
+		if (pieces == null) {
+			pieces = calculateActivePieces(this.pieceBitBoards[pieceIndex]);
+			this.pieceLists.set(pieceIndex, pieces);
+		}
+		return pieces;
 	}
 	
 	public Iterable<Piece> getAllPieces() {
-		return Iterables.unmodifiableIterable(Iterables.concat(this.whitePieces, this.blackPieces));
+		return Iterables.unmodifiableIterable(Iterables.concat(getWhitePieces(), getBlackPieces()));
+	}
+	
+	public Collection<Move> getStandardLegalMoves(final Color color) {
+		if (color.isWhite()) {
+			Collection<Move> moves = this.whiteStandardLegalMoves;
+			if (moves == null) {
+				moves = calculateLegalMoves(Color.WHITE);
+				this.whiteStandardLegalMoves = moves;
+			}
+			return moves;
+		}
+		Collection<Move> moves = this.blackStandardLegalMoves;
+		if (moves == null) {
+			moves = calculateLegalMoves(Color.BLACK);
+			this.blackStandardLegalMoves = moves;
+		}
+		return moves;
 	}
 	
 	public Iterable<Move> getAllLegalMoves() {
@@ -86,44 +375,34 @@ public class Board {
 															   this.blackPlayer.getLegalMoves()));
 	}
 	
-	private Collection<Move> calculateLegalMoves(final Collection<Piece> pieces) {
+	private Collection<Move> calculateLegalMoves(final Color color) {
 		final List<Move> legalMoves = new ArrayList<>();
-		for (final Piece piece : pieces) {
-			legalMoves.addAll(piece.calculateLegalMoves(this));
+		long pieces = color.choosePlayer(this.whitePlayer, this.blackPlayer).isInCheck() ?
+				calculateEvasionCandidates(color) : getOccupancy(color);
+		while (pieces != 0) {
+			final int coordinate = Long.numberOfTrailingZeros(pieces);
+			legalMoves.addAll(this.boardPieces[coordinate].calculateLegalMoves(this));
+			pieces &= pieces - 1;
 		}
+		MoveGenerationStats.moveListGenerated();
 		return ImmutableList.copyOf(legalMoves);
 	}
 	
-	private static Collection<Piece> calculateActivePieces(final BoardBuilder builder,
-														   final Color color) {
-		final List<Piece> activePieces = new ArrayList<>();
-		for (final Piece piece : builder.boardConfig.values()) {
-			if (piece.getPieceColor() == color) {
-				activePieces.add(piece);
-			}
+	private Collection<Piece> calculateActivePieces(final long occupancy) {
+		final ImmutableList.Builder<Piece> activePieces = ImmutableList.builder();
+		long pieces = occupancy;
+		while (pieces != 0) {
+			activePieces.add(this.boardPieces[Long.numberOfTrailingZeros(pieces)]);
+			pieces &= pieces - 1;
 		}
-		return ImmutableList.copyOf(activePieces);
+		return activePieces.build();
 	}
-	/*
-	private static Collection<Piece> calculateActivePieces(final List<Tile> gameBoard,
-														   final Color color) {
-		final List<Piece> activePieces = new ArrayList<>();
-		for (final Tile tile : gameBoard) {
-			if (tile.isTileOccupied()) {
-				final Piece piece = tile.getPiece();
-				if (piece.getPieceColor() == color) {
-					activePieces.add(piece);
-				}
-			}
-		}
-		return ImmutableList.copyOf(activePieces);
-	} */
 	
 	@Override
 	public String toString() {
 		final StringBuilder builder = new StringBuilder();
 		for (int i = 0; i < BoardUtils.NUM_TILES; i++) {
-			final String tileText = this.gameBoard.get(i).toString();
+			final String tileText = Tile.createTile(i, this.boardPieces[i]).toString();
 			builder.append(String.format("%3s", tileText));
 			
 			if ((i + 1) % BoardUtils.NUM_TILES_PER_ROW == 0) {
@@ -133,10 +412,80 @@ public class Board {
 		return builder.toString();
 	}
 	
-	private static List<Tile> createGameBoard(final BoardBuilder builder) {
+	public String toFen() {
+		final StringBuilder fen = new StringBuilder(90);
+		for (int row = 0; row < BoardUtils.NUM_TILES_PER_ROW; row++) {
+			int emptyTiles = 0;
+			for (int column = 0; column < BoardUtils.NUM_TILES_PER_ROW; column++) {
+				final Piece piece = this.boardPieces[row * BoardUtils.NUM_TILES_PER_ROW + column];
+				if (piece == null) {
+					emptyTiles++;
+					continue;
+				}
+				if (emptyTiles > 0) {
+					fen.append((char) ('0' + emptyTiles));
+					emptyTiles = 0;
+				}
+				final char pieceChar = FEN_PIECES.charAt(piece.getPieceType().ordinal());
+				fen.append(piece.getPieceColor().isWhite() ? pieceChar : Character.toLowerCase(pieceChar));
+			}
+			if (emptyTiles > 0) {
+				fen.append((char) ('0' + emptyTiles));
+			}
+			if (row < BoardUtils.NUM_TILES_PER_ROW - 1) {
+				fen.append('/');
+			}
+		}
+		fen.append(this.currentPlayer.getColor().isWhite() ? " w " : " b ");
+		if (this.castlingRights == 0) {
+			fen.append('-');
+		} else {
+			for (int i = 0; i < FEN_CASTLING.length(); i++) {
+				if ((this.castlingRights & (1 << i)) != 0) {
+					fen.append(FEN_CASTLING.charAt(i));
+				}
+			}
+		}
+		fen.append(' ');
+		if (this.enPassantPawn == null) {
+			fen.append('-');
+		} else {
+			fen.append(BoardUtils.getPositionAtCoordinate(this.enPassantPawn.getPiecePosition() -
+					this.enPassantPawn.getPieceColor().getDirection() * BoardUtils.NUM_TILES_PER_ROW));
+		}
+		return fen.append(' ').append(this.halfMoveClock).append(' ').append(this.fullMoveNumber).toString();
+	}
+	
+	private static int calculateCastlingRights(final Piece[] boardPieces) {
+		int rights = 0;
+		if (isCastleReady(boardPieces, 60, 63, Color.WHITE)) {
+			rights |= BoardUtils.WHITE_KING_SIDE;
+		}
+		if (isCastleReady(boardPieces, 60, 56, Color.WHITE)) {
+			rights |= BoardUtils.WHITE_QUEEN_SIDE;
+		}
+		if (isCastleReady(boardPieces, 4, 7, Color.BLACK)) {
+			rights |= BoardUtils.BLACK_KING_SIDE;
+		}
+		if (isCastleReady(boardPieces, 4, 0, Color.BLACK)) {
+			rights |= BoardUtils.BLACK_QUEEN_SIDE;
+		}
+		return rights;
+	}
+	
+	private static boolean isCastleReady(final Piece[] boardPieces, final int kingSquare,
+										 final int rookSquare, final Color color) {
+		final Piece king = boardPieces[kingSquare];
+		final Piece rook = boardPieces[rookSquare];
+		return king != null && king.getPieceType().isKing() && king.getPieceColor() == color &&
+			   king.isFirstMove() && rook != null && rook.getPieceType().isRook() &&
+			   rook.getPieceColor() == color && rook.isFirstMove();
+	}
+	
+	private static List<Tile> createGameBoard(final Piece[] boardPieces) {
 		final Tile[] tiles = new Tile[BoardUtils.NUM_TILES];
 		for (int i = 0; i < BoardUtils.NUM_TILES; i++) {
-			tiles[i] = Tile.createTile(i, builder.boardConfig.get(i));
+			tiles[i] = Tile.createTile(i, boardPieces[i]);
 		}
 		return ImmutableList.copyOf(tiles);
 	}
@@ -144,39 +493,39 @@ public class Board {
 	public static Board createStandardBoard() {
 		final BoardBuilder builder = new BoardBuilder();
 		// Black Layout
-		builder.setPiece(new Rook(0, Color.BLACK));
-		builder.setPiece(new Knight(1, Color.BLACK));
-		builder.setPiece(new Bishop(2, Color.BLACK));
-		builder.setPiece(new Queen(3, Color.BLACK));
-		builder.setPiece(new King(4, Color.BLACK, true, true));
-		builder.setPiece(new Bishop(5, Color.BLACK));
-		builder.setPiece(new Knight(6, Color.BLACK));
-		builder.setPiece(new Rook(7, Color.BLACK));
-		builder.setPiece(new Pawn(8, Color.BLACK));
-		builder.setPiece(new Pawn(9, Color.BLACK));
-		builder.setPiece(new Pawn(10, Color.BLACK));
-		builder.setPiece(new Pawn(11, Color.BLACK));
-		builder.setPiece(new Pawn(12, Color.BLACK));
-		builder.setPiece(new Pawn(13, Color.BLACK));
-		builder.setPiece(new Pawn(14, Color.BLACK));
-		builder.setPiece(new Pawn(15, Color.BLACK));
+		builder.setPiece(PieceCache.get(PieceType.ROOK, Color.BLACK, 0, true));
+		builder.setPiece(PieceCache.get(PieceType.KNIGHT, Color.BLACK, 1, true));
+		builder.setPiece(PieceCache.get(PieceType.BISHOP, Color.BLACK, 2, true));
+		builder.setPiece(PieceCache.get(PieceType.QUEEN, Color.BLACK, 3, true));
+		builder.setPiece(PieceCache.getKing(Color.BLACK, 4, true, false, true, true));
+		builder.setPiece(PieceCache.get(PieceType.BISHOP, Color.BLACK, 5, true));
+		builder.setPiece(PieceCache.get(PieceType.KNIGHT, Color.BLACK, 6, true));
+		builder.setPiece(PieceCache.get(PieceType.ROOK, Color.BLACK, 7, true));
+		builder.setPiece(PieceCache.get(PieceType.PAWN, Color.BLACK, 8, true));
+		builder.setPiece(PieceCache.get(PieceType.PAWN, Color.BLACK, 9, true));
+		builder.setPiece(PieceCache.get(PieceType.PAWN, Color.BLACK, 10, true));
+		builder.setPiece(PieceCache.get(PieceType.PAWN, Color.BLACK, 11, true));
+		builder.setPiece(PieceCache.get(PieceType.PAWN, Color.BLACK, 12, true));
+		builder.setPiece(PieceCache.get(PieceType.PAWN, Color.BLACK, 13, true));
+		builder.setPiece(PieceCache.get(PieceType.PAWN, Color.BLACK, 14, true));
+		builder.setPiece(PieceCache.get(PieceType.PAWN, Color.BLACK, 15, true));
 		// White Layout
-		builder.setPiece(new Pawn(48, Color.WHITE));
-		builder.setPiece(new Pawn(49, Color.WHITE));
-		builder.setPiece(new Pawn(50, Color.WHITE));
-		builder.setPiece(new Pawn(51, Color.WHITE));
-		builder.setPiece(new Pawn(52, Color.WHITE));
-		builder.setPiece(new Pawn(53, Color.WHITE));
-		builder.setPiece(new Pawn(54, Color.WHITE));
-		builder.setPiece(new Pawn(55, Color.WHITE));
-		builder.setPiece(new Rook(56, Color.WHITE));
-		builder.setPiece(new Knight(57, Color.WHITE));
-		builder.setPiece(new Bishop(58, Color.WHITE));
-		builder.setPiece(new Queen(59, Color.WHITE));
-		builder.setPiece(new King(60, Color.WHITE, true, true));
-		builder.setPiece(new Bishop(61, Color.WHITE));
-		builder.setPiece(new Knight(62, Color.WHITE));
-		builder.setPiece(new Rook(63, Color.WHITE));
+		builder.setPiece(PieceCache.get(PieceType.PAWN, Color.WHITE, 48, true));
+		builder.setPiece(PieceCache.get(PieceType.PAWN, Color.WHITE, 49, true));
+		builder.setPiece(PieceCache.get(PieceType.PAWN, Color.WHITE, 50, true));
+		builder.setPiece(PieceCache.get(PieceType.PAWN, Color.WHITE, 51, true));
+		builder.setPiece(PieceCache.get(PieceType.PAWN, Color.WHITE, 52, true));
+		builder.setPiece(PieceCache.get(PieceType.PAWN, Color.WHITE, 53, true));
+		builder.setPiece(PieceCache.get(PieceType.PAWN, Color.WHITE, 54, true));
+		builder.setPiece(PieceCache.get(PieceType.PAWN, Color.WHITE, 55, true));
+		builder.setPiece(PieceCache.get(PieceType.ROOK, Color.WHITE, 56, true));
+		builder.setPiece(PieceCache.get(PieceType.KNIGHT, Color.WHITE, 57, true));
+		builder.setPiece(PieceCache.get(PieceType.BISHOP, Color.WHITE, 58, true));
+		builder.setPiece(PieceCache.get(PieceType.QUEEN, Color.WHITE, 59, true));
+		builder.setPiece(PieceCache.getKing(Color.WHITE, 60, true, false, true, true));
+		builder.setPiece(PieceCache.get(PieceType.BISHOP, Color.WHITE, 61, true));
+		builder.setPiece(PieceCache.get(PieceType.KNIGHT, Color.WHITE, 62, true));
+		builder.setPiece(PieceCache.get(PieceType.ROOK, Color.WHITE, 63, true));
 		
 		// White to move first
 		builder.setMoveMaker(Color.WHITE);
@@ -184,16 +533,161 @@ public class Board {
 	}
 	
 	public static class BoardBuilder {
-		Map<Integer, Piece> boardConfig;
+		final Piece[] boardConfig;
 		Color nextMoveMaker;
 		Pawn enPassantPawn;
+		int halfMoveClock;
+		int fullMoveNumber;
+		long zobristKey;
+		boolean hasZobristKey;
 		
 		public BoardBuilder() {
-			this.boardConfig = new HashMap<>();
+			this.boardConfig = new Piece[BoardUtils.NUM_TILES];
+			this.fullMoveNumber = 1;
+		}
+		
+		/**
+		 * Parses a FEN string in a single pass over its characters. Castling
+		 * rights become king and rook first-move flags and the en passant
+		 * square becomes the pawn that just jumped past it. The two move
+		 * counters may be omitted.
+		 */
+		public static Board fromFen(final String fen) {
+			final BoardBuilder builder = new BoardBuilder();
+			final int length = fen.length();
+			int index = 0;
+			int square = 0;
+			int file = 0;
+			while (index < length && fen.charAt(index) != ' ') {
+				final char c = fen.charAt(index++);
+				if (c == '/') {
+					if (file != BoardUtils.NUM_TILES_PER_ROW || square >= BoardUtils.NUM_TILES) {
+						throw new RuntimeException("Rank without 8 squares in FEN: " + fen);
+					}
+					file = 0;
+					continue;
+				}
+				file += c >= '1' && c <= '8' ? c - '0' : 1;
+				if (file > BoardUtils.NUM_TILES_PER_ROW) {
+					throw new RuntimeException("Rank without 8 squares in FEN: " + fen);
+				}
+				if (c >= '1' && c <= '8') {
+					square += c - '0';
+				} else {
+					builder.setPiece(createPiece(c, square));
+					square++;
+				}
+			}
+			if (square != BoardUtils.NUM_TILES || file != BoardUtils.NUM_TILES_PER_ROW || index + 1 >= length) {
+				throw new RuntimeException("Not a valid FEN: " + fen);
+			}
+			final char side = fen.charAt(++index);
+			if (side != 'w' && side != 'b') {
+				throw new RuntimeException("Not a valid side to move in FEN: " + fen);
+			}
+			builder.setMoveMaker(side == 'w' ? Color.WHITE : Color.BLACK);
+			index += 2;
+			while (index < length && fen.charAt(index) != ' ') {
+				final char c = fen.charAt(index++);
+				final int right = FEN_CASTLING.indexOf(c);
+				if (right >= 0) {
+					builder.grantCastlingRight(1 << right);
+				} else if (c != '-') {
+					throw new RuntimeException("Not a valid castling right in FEN: " + fen);
+				}
+			}
+			index++;
+			if (index < length && fen.charAt(index) != '-') {
+				if (index + 1 >= length) {
+					throw new RuntimeException("Not a valid en passant square in FEN: " + fen);
+				}
+				final int enPassantSquare = parseSquare(fen.charAt(index), fen.charAt(index + 1));
+				if (fen.charAt(index + 1) != (side == 'w' ? '6' : '3')) {
+					throw new RuntimeException("Not a valid en passant square in FEN: " + fen);
+				}
+				final int pawnSquare = enPassantSquare +
+						(side == 'w' ? BoardUtils.NUM_TILES_PER_ROW : -BoardUtils.NUM_TILES_PER_ROW);
+				final Piece pawn = builder.boardConfig[pawnSquare];
+				if (pawn == null || !pawn.getPieceType().isPawn()) {
+					throw new RuntimeException("No pawn to capture en passant in FEN: " + fen);
+				}
+				if (pawn.getPieceColor() == builder.nextMoveMaker) {
+					throw new RuntimeException("Not a valid en passant square in FEN: " + fen);
+				}
+				builder.setEnPassantPawn((Pawn) pawn);
+			}
+			while (index < length && fen.charAt(index) != ' ') {
+				index++;
+			}
+			if (index < length) {
+				int halfMoveClock = 0;
+				while (++index < length && fen.charAt(index) != ' ') {
+					halfMoveClock = halfMoveClock * 10 + digit(fen, index);
+				}
+				builder.setHalfMoveClock(halfMoveClock);
+			}
+			if (index < length) {
+				int fullMoveNumber = 0;
+				while (++index < length && fen.charAt(index) != ' ') {
+					fullMoveNumber = fullMoveNumber * 10 + digit(fen, index);
+				}
+				builder.setFullMoveNumber(fullMoveNumber);
+			}
+			return builder.build();
+		}
+		
+		private static Piece createPiece(final char c, final int square) {
+			final Color color = c < 'a' ? Color.WHITE : Color.BLACK;
+			final int pieceType = FEN_PIECES.indexOf(color.isWhite() ? c : Character.toUpperCase(c));
+			if (pieceType < 0) {
+				throw new RuntimeException("Not a valid FEN piece: " + c);
+			}
+			return createPiece(color, PIECE_TYPES[pieceType], square);
+		}
+		
+		/** The piece a FEN letter stands for: castling flags come later from the castling rights. */
+		static Piece createPiece(final Color color, final PieceType type, final int square) {
+			return type.isKing() ? PieceCache.getKing(color, square, false, false, false, false) :
+					PieceCache.get(type, color, square, !type.isRook());
+		}
+		
+		/** Sets the first-move flags of the king and rook behind one castling right, if they are in place. */
+		void grantCastlingRight(final int right) {
+			final boolean kingSide = (right & (BoardUtils.WHITE_KING_SIDE | BoardUtils.BLACK_KING_SIDE)) != 0;
+			final Color color = (right & (BoardUtils.WHITE_KING_SIDE | BoardUtils.WHITE_QUEEN_SIDE)) != 0 ?
+					Color.WHITE : Color.BLACK;
+			final int kingSquare = color.isWhite() ? 60 : 4;
+			final int rookSquare = kingSide ? kingSquare + 3 : kingSquare - 4;
+			final Piece king = this.boardConfig[kingSquare];
+			final Piece rook = this.boardConfig[rookSquare];
+			if (king == null || !king.getPieceType().isKing() || king.getPieceColor() != color ||
+					rook == null || !rook.getPieceType().isRook() || rook.getPieceColor() != color) {
+				return;
+			}
+			final King castleKing = (King) king;
+			setPiece(PieceCache.getKing(color, kingSquare, true, false,
+					castleKing.isKingSideCastleCapable() || kingSide,
+					castleKing.isQueenSideCastleCapable() || !kingSide));
+			setPiece(PieceCache.get(PieceType.ROOK, color, rookSquare, true));
+		}
+		
+		private static int parseSquare(final char file, final char rank) {
+			if (file < 'a' || file > 'h' || rank < '1' || rank > '8') {
+				throw new RuntimeException("Not a valid square: " + file + rank);
+			}
+			return ('8' - rank) * BoardUtils.NUM_TILES_PER_ROW + (file - 'a');
+		}
+		
+		private static int digit(final String fen, final int index) {
+			final char c = fen.charAt(index);
+			if (c < '0' || c > '9') {
+				throw new RuntimeException("Not a valid move counter in FEN: " + fen);
+			}
+			return c - '0';
 		}
 		
 		public BoardBuilder setPiece(final Piece piece) {
-			this.boardConfig.put(piece.getPiecePosition(), piece);
+			this.boardConfig[piece.getPiecePosition()] = piece;
 			return this;
 		}
 		
@@ -207,6 +701,22 @@ public class Board {
 			return this;
 		}
 		
+		public BoardBuilder setHalfMoveClock(final int halfMoveClock) {
+			this.halfMoveClock = halfMoveClock;
+			return this;
+		}
+		
+		public BoardBuilder setFullMoveNumber(final int fullMoveNumber) {
+			this.fullMoveNumber = fullMoveNumber;
+			return this;
+		}
+		
+		BoardBuilder setZobristKey(final long zobristKey) {
+			this.zobristKey = zobristKey;
+			this.hasZobristKey = true;
+			return this;
+		}
+		
 		public Board build() {
 			return new Board(this);
 		}
@@ -6,6 +6,9 @@ package com.chess.engine.board;
 import java.util.HashMap;
 import java.util.Map;
 
+import com.chess.engine.pieces.Color;
+import com.chess.engine.pieces.Piece;
+import com.chess.engine.pieces.Piece.PieceType;
 import com.google.common.collect.ImmutableMap;
 
 
@@ -31,6 +34,16 @@ public final class BoardUtils {
 	public static final int START_TILE_INDEX = 0;
 	public static final int NUM_TILES = 64;
 	public static final int NUM_TILES_PER_ROW = 8;
+	public static final int NUM_PIECE_TYPES = PieceType.values().length;
+	public static final int NUM_PIECE_INDEXES = 2 * NUM_PIECE_TYPES;
+	public static final long EMPTY_BITBOARD = 0L;
+	
+	public static final int WHITE_KING_SIDE = 1;
+	public static final int WHITE_QUEEN_SIDE = 2;
+	public static final int BLACK_KING_SIDE = 4;
+	public static final int BLACK_QUEEN_SIDE = 8;
+	public static final int ALL_CASTLING_RIGHTS = 15;
+	public static final int[] CASTLING_RIGHTS_MASK = initCastlingRightsMask();
 	
 	public static final String[] ALGEBRAIC_NOTATION = initializeAlgebraicNotation();
 	public static final Map<String, Integer> POSITION_TO_COORDINATE = initializePositionToCoordinateMap();
@@ -57,6 +70,20 @@ public final class BoardUtils {
 		return column;
 	}
 	
+	private static int[] initCastlingRightsMask() {
+		final int[] mask = new int[NUM_TILES];
+		for (int i = 0; i < NUM_TILES; i++) {
+			mask[i] = ALL_CASTLING_RIGHTS;
+		}
+		mask[60] &= ~(WHITE_KING_SIDE | WHITE_QUEEN_SIDE);
+		mask[63] &= ~WHITE_KING_SIDE;
+		mask[56] &= ~WHITE_QUEEN_SIDE;
+		mask[4] &= ~(BLACK_KING_SIDE | BLACK_QUEEN_SIDE);
+		mask[7] &= ~BLACK_KING_SIDE;
+		mask[0] &= ~BLACK_QUEEN_SIDE;
+		return mask;
+	}
+	
 	private static String[] initializeAlgebraicNotation() {
 		return new String[] {
 				"a8", "b8", "c8", "d8", "e8", "f8", "g8", "h8",
@@ -90,13 +117,25 @@ public final class BoardUtils {
 		return ALGEBRAIC_NOTATION[coordinate];
 	}
 	
+	public static long squareMask(final int coordinate) {
+		return 1L << coordinate;
+	}
+	
+	public static int pieceIndex(final Color color, final PieceType pieceType) {
+		return color.ordinal() * NUM_PIECE_TYPES + pieceType.ordinal();
+	}
+	
+	public static int pieceIndex(final Piece piece) {
+		return pieceIndex(piece.getPieceColor(), piece.getPieceType());
+	}
+	
 	public static boolean isThreatenedBoard(final Board board) {
 		return board.whitePlayer().isInCheck() || board.blackPlayer().getOpponent().isInCheck();
 	}
 	
 	public static boolean isEndGame(final Board board) {
-		return board.whitePlayer().isInCheckMate() || board.blackPlayer().isInCheckMate() ||
-			   board.whitePlayer().isInStaleMate() || board.blackPlayer().isInStaleMate();
+		return board.whitePlayer().getGameStatus().isGameOver() ||
+			   board.blackPlayer().getGameStatus().isGameOver();
 	}
 	
 }
@@ -0,0 +1,102 @@
+package com.chess.engine.board;
+
+/**
+ * Per-square destination tables for knights, kings and pawns, built once at
+ * class initialisation. Every table is available both as an array of
+ * destination squares and as a bitmask. Colors are passed as
+ * {@code Color.ordinal()}. The returned arrays are shared and must not be
+ * modified.
+ */
+public final class JumpTables {
+	public static final int NO_SQUARE = -1;
+
+	private static final int WHITE = 0;
+	private static final int[] KNIGHT_OFFSETS = { -17, -15, -10, -6, 6, 10, 15, 17 };
+	private static final int[] KING_OFFSETS = { -9, -8, -7, -1, 1, 7, 8, 9 };
+	private static final int[][] PAWN_ATTACK_OFFSETS = { { -9, -7 }, { 7, 9 } };
+
+	private static final long[] KNIGHT_MASKS = new long[BoardUtils.NUM_TILES];
+	private static final int[][] KNIGHT_DESTINATIONS = new int[BoardUtils.NUM_TILES][];
+	private static final long[] KING_MASKS = new long[BoardUtils.NUM_TILES];
+	private static final int[][] KING_DESTINATIONS = new int[BoardUtils.NUM_TILES][];
+	private static final long[][] PAWN_ATTACK_MASKS = new long[2][BoardUtils.NUM_TILES];
+	private static final int[][][] PAWN_ATTACK_DESTINATIONS = new int[2][BoardUtils.NUM_TILES][];
+	private static final int[][] PAWN_PUSH_DESTINATIONS = new int[2][BoardUtils.NUM_TILES];
+	private static final int[][] PAWN_JUMP_DESTINATIONS = new int[2][BoardUtils.NUM_TILES];
+
+	static {
+		for (int square = 0; square < BoardUtils.NUM_TILES; square++) {
+			KNIGHT_MASKS[square] = stepMask(square, KNIGHT_OFFSETS);
+			KNIGHT_DESTINATIONS[square] = squaresOf(KNIGHT_MASKS[square]);
+			KING_MASKS[square] = stepMask(square, KING_OFFSETS);
+			KING_DESTINATIONS[square] = squaresOf(KING_MASKS[square]);
+			for (int color = 0; color < 2; color++) {
+				final int forward = color == WHITE ? -BoardUtils.NUM_TILES_PER_ROW : BoardUtils.NUM_TILES_PER_ROW;
+				final boolean onStartRow = color == WHITE ? BoardUtils.SEVENTH_ROW[square] : BoardUtils.SECOND_ROW[square];
+				PAWN_ATTACK_MASKS[color][square] = stepMask(square, PAWN_ATTACK_OFFSETS[color]);
+				PAWN_ATTACK_DESTINATIONS[color][square] = squaresOf(PAWN_ATTACK_MASKS[color][square]);
+				PAWN_PUSH_DESTINATIONS[color][square] = BoardUtils.isValidTileCoordinate(square + forward) ?
+						square + forward : NO_SQUARE;
+				PAWN_JUMP_DESTINATIONS[color][square] = onStartRow ? square + 2 * forward : NO_SQUARE;
+			}
+		}
+	}
+
+	private JumpTables() {
+		throw new RuntimeException("Cannot instantiate JumpTables");
+	}
+
+	public static long knightMask(final int square) {
+		return KNIGHT_MASKS[square];
+	}
+
+	public static int[] knightDestinations(final int square) {
+		return KNIGHT_DESTINATIONS[square];
+	}
+
+	public static long kingMask(final int square) {
+		return KING_MASKS[square];
+	}
+
+	public static int[] kingDestinations(final int square) {
+		return KING_DESTINATIONS[square];
+	}
+
+	public static long pawnAttackMask(final int color, final int square) {
+		return PAWN_ATTACK_MASKS[color][square];
+	}
+
+	public static int[] pawnAttackDestinations(final int color, final int square) {
+		return PAWN_ATTACK_DESTINATIONS[color][square];
+	}
+
+	public static int pawnPushDestination(final int color, final int square) {
+		return PAWN_PUSH_DESTINATIONS[color][square];
+	}
+
+	public static int pawnJumpDestination(final int color, final int square) {
+		return PAWN_JUMP_DESTINATIONS[color][square];
+	}
+
+	private static long stepMask(final int square, final int[] offsets) {
+		long mask = BoardUtils.EMPTY_BITBOARD;
+		for (final int offset : offsets) {
+			final int target = square + offset;
+			if (BoardUtils.isValidTileCoordinate(target) && Math.abs((target & 7) - (square & 7)) <= 2) {
+				mask |= BoardUtils.squareMask(target);
+			}
+		}
+		return mask;
+	}
+
+	private static int[] squaresOf(final long mask) {
+		final int[] squares = new int[Long.bitCount(mask)];
+		long remaining = mask;
+		for (int i = 0; i < squares.length; i++) {
+			squares[i] = Long.numberOfTrailingZeros(remaining);
+			remaining &= remaining - 1;
+		}
+		return squares;
+	}
+
+}
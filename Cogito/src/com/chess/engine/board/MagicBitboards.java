@@ -0,0 +1,137 @@
+package com.chess.engine.board;
+
+/**
+ * Magic-bitboard attack tables for rooks and bishops. For every square the
+ * relevant blockers are masked out of the occupancy, multiplied by a magic
+ * number and shifted down to an index into a table of precomputed attack
+ * sets. The tables are filled from ray walks when the class is initialised;
+ * the magic numbers were found offline by random search and are verified to
+ * be collision free while the tables are built.
+ */
+final class MagicBitboards {
+	private static final int[] ROOK_OFFSETS = { -8, -1, 1, 8 };
+	private static final int[] BISHOP_OFFSETS = { -9, -7, 7, 9 };
+
+	private static final long[] ROOK_MASKS = new long[BoardUtils.NUM_TILES];
+	private static final long[] ROOK_MAGICS = {
+		0x0080042250844000L, 0x4880200080400010L, 0x0100110008200040L, 0x0480100008008004L,
+		0x0100040210080100L, 0x0200100108040200L, 0xC400008108021004L, 0x0580026100104080L,
+		0x00148000A2804000L, 0x0204400020100040L, 0x0002808020001000L, 0x0000808010000800L,
+		0x6000800800040080L, 0x4250800200800400L, 0x0120800200010080L, 0x0102000062008401L,
+		0x06202080009AC000L, 0x0020128020400080L, 0x0011818050002000L, 0x2200808008001000L,
+		0xA000510008010184L, 0x0400808004000200L, 0x0000040030024188L, 0x0010020000804401L,
+		0xC020208080004000L, 0x0040208100400101L, 0x0812008200201043L, 0x2A01000900100020L,
+		0x0800050100080010L, 0x0800020080040080L, 0x8004020080800100L, 0x0800A08200004419L,
+		0x4800400424800284L, 0x0400208101004008L, 0x4004200011004101L, 0x1800080082801000L,
+		0x0044040080800800L, 0x0242000802000410L, 0x8041020804000110L, 0x8048004082000104L,
+		0x8000800040028020L, 0x0010004020004000L, 0x1008208012020040L, 0x0400201001010008L,
+		0x400C000800110100L, 0x00A0020004008080L, 0x24081102082C0010L, 0x4020040080420021L,
+		0x4100204000801080L, 0x2400400420100640L, 0x1001002008104100L, 0x0202800800100280L,
+		0x0000800400080080L, 0x4000020004008080L, 0x0002080182100400L, 0x0000104418810600L,
+		0x1000A10140160482L, 0x2882804411012202L, 0x8002421020088202L, 0x2010001100092005L,
+		0x4041000800040211L, 0x20020024100108A2L, 0x82001000A8020104L, 0x2000084401072882L
+	};
+	private static final int[] ROOK_SHIFTS = new int[BoardUtils.NUM_TILES];
+	private static final long[][] ROOK_ATTACKS = new long[BoardUtils.NUM_TILES][];
+	private static final long[] BISHOP_MASKS = new long[BoardUtils.NUM_TILES];
+	private static final long[] BISHOP_MAGICS = {
+		0x4120081010808013L, 0x1410908210404000L, 0x0510440844500000L, 0x0942208209008100L,
+		0x0001104000210080L, 0x9805142004228040L, 0x2282443A08400002L, 0x8000240404210812L,
+		0x000804A4500C2110L, 0x0040022288010102L, 0x0100410200810700L, 0x1100020A02000441L,
+		0x5001040420108708L, 0x60000088200A042CL, 0x0901451088044020L, 0x10010204E30C1010L,
+		0x48C0091010410104L, 0x0420009002808902L, 0x14820001040C0080L, 0x00202A120200C090L,
+		0x402C005611040400L, 0xA208200202012005L, 0x2064000212010480L, 0x20C0221100821030L,
+		0x0820088020224470L, 0x0001200008080140L, 0x2400209010008080L, 0x04C0480002820040L,
+		0xD009001005004000L, 0x400A0A0023209000L, 0x020600400C0C0240L, 0x00C242180A410404L,
+		0x00222004041090A5L, 0x942C261200081060L, 0x0050880400204040L, 0x0008202020080081L,
+		0x0004108400020500L, 0xA020008100808052L, 0x1041040904040100L, 0x0044041382012080L,
+		0x0202082088180410L, 0x8080A41008000200L, 0x0028104030009800L, 0x60080040220C1020L,
+		0x010040010900220AL, 0x0240110840808100L, 0x0004212202080420L, 0x00041084024D0107L,
+		0x4019010820040080L, 0x0002084218050018L, 0x64080124021842D0L, 0x0281800020880600L,
+		0x0004041102020402L, 0x0180C08408208484L, 0x0004101001010800L, 0x0010014101020000L,
+		0x0002410080A02044L, 0x0002110110904400L, 0x008DC9B100880400L, 0x0010400000840400L,
+		0x0288000141282A02L, 0x001A104012848104L, 0x0402424204290600L, 0x8240022081020283L
+	};
+	private static final int[] BISHOP_SHIFTS = new int[BoardUtils.NUM_TILES];
+	private static final long[][] BISHOP_ATTACKS = new long[BoardUtils.NUM_TILES][];
+
+	static {
+		for (int square = 0; square < BoardUtils.NUM_TILES; square++) {
+			initSquare(square, ROOK_OFFSETS, ROOK_MASKS, ROOK_MAGICS, ROOK_SHIFTS, ROOK_ATTACKS);
+			initSquare(square, BISHOP_OFFSETS, BISHOP_MASKS, BISHOP_MAGICS, BISHOP_SHIFTS, BISHOP_ATTACKS);
+		}
+	}
+
+	private MagicBitboards() {
+		throw new RuntimeException("Cannot instantiate MagicBitboards");
+	}
+
+	static long rookAttacks(final int square, final long occupancy) {
+		final long blockers = occupancy & ROOK_MASKS[square];
+		return ROOK_ATTACKS[square][(int) ((blockers * ROOK_MAGICS[square]) >>> ROOK_SHIFTS[square])];
+	}
+
+	static long bishopAttacks(final int square, final long occupancy) {
+		final long blockers = occupancy & BISHOP_MASKS[square];
+		return BISHOP_ATTACKS[square][(int) ((blockers * BISHOP_MAGICS[square]) >>> BISHOP_SHIFTS[square])];
+	}
+
+	private static void initSquare(final int square, final int[] offsets, final long[] masks, final long[] magics,
+								   final int[] shifts, final long[][] attacks) {
+		final long mask = relevantBlockers(square, offsets);
+		final int bits = Long.bitCount(mask);
+		final long[] table = new long[1 << bits];
+		final boolean[] filled = new boolean[table.length];
+		long occupancy = BoardUtils.EMPTY_BITBOARD;
+		do {
+			final int index = (int) ((occupancy * magics[square]) >>> (64 - bits));
+			final long squareAttacks = slidingAttacks(square, occupancy, offsets);
+			if (filled[index] && table[index] != squareAttacks) {
+				throw new RuntimeException("Magic collision on square " + square);
+			}
+			filled[index] = true;
+			table[index] = squareAttacks;
+			occupancy = (occupancy - mask) & mask;
+		} while (occupancy != 0);
+		masks[square] = mask;
+		shifts[square] = 64 - bits;
+		attacks[square] = table;
+	}
+
+	private static long relevantBlockers(final int square, final int[] offsets) {
+		long mask = BoardUtils.EMPTY_BITBOARD;
+		for (final int offset : offsets) {
+			int from = square;
+			int target = square + offset;
+			while (isOnBoardStep(from, target) && isOnBoardStep(target, target + offset)) {
+				mask |= BoardUtils.squareMask(target);
+				from = target;
+				target += offset;
+			}
+		}
+		return mask;
+	}
+
+	private static long slidingAttacks(final int square, final long occupancy, final int[] offsets) {
+		long attacks = BoardUtils.EMPTY_BITBOARD;
+		for (final int offset : offsets) {
+			int from = square;
+			int target = square + offset;
+			while (isOnBoardStep(from, target)) {
+				final long targetMask = BoardUtils.squareMask(target);
+				attacks |= targetMask;
+				if ((occupancy & targetMask) != 0) {
+					break;
+				}
+				from = target;
+				target += offset;
+			}
+		}
+		return attacks;
+	}
+
+	private static boolean isOnBoardStep(final int from, final int to) {
+		return BoardUtils.isValidTileCoordinate(to) && Math.abs((to & 7) - (from & 7)) <= 1;
+	}
+
+}
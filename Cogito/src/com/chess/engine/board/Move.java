@@ -6,6 +6,7 @@ package com.chess.engine.board;
 import com.chess.engine.board.Board.BoardBuilder;
 import com.chess.engine.pieces.Pawn;
 import com.chess.engine.pieces.Piece;
+import com.chess.engine.pieces.PieceCache;
 import com.chess.engine.pieces.Rook;
 import com.chess.engine.pieces.Piece.PieceType;
 
@@ -86,16 +87,15 @@ public abstract class Move {
 	
 	public Board execute() {
 		final BoardBuilder builder = new BoardBuilder();
-		for (final Piece piece : this.board.currentPlayer().getActivePieces()) {
-			if (!this.movedPiece.equals(piece)) {
+		for (final Piece piece : this.board.getAllPieces()) {
+			if (piece != this.movedPiece) {
 				builder.setPiece(piece);
 			}
 		}
-		for (final Piece piece : this.board.currentPlayer().getOpponent().getActivePieces()) {
-			builder.setPiece(piece);
-		}
 		builder.setPiece(this.movedPiece.movePiece(this));
 		builder.setMoveMaker(this.board.currentPlayer().getOpponent().getColor());
+		setMoveCounters(builder);
+		builder.setZobristKey(calculateZobristKey());
 		return builder.build();
 	}
 	
@@ -104,10 +104,34 @@ public abstract class Move {
 		for (final Piece piece : this.board.getAllPieces()) {
 			builder.setPiece(piece);
 		}
+		builder.setEnPassantPawn(this.board.getEnPassantPawn());
 		builder.setMoveMaker(this.board.currentPlayer().getColor());
+		builder.setHalfMoveClock(this.board.getHalfMoveClock());
+		builder.setFullMoveNumber(this.board.getFullMoveNumber());
+		builder.setZobristKey(this.board.zobristKey());
 		return builder.build();
 	}
 	
+	/** Resets the half move clock on pawn moves and captures, and counts a full move after black moves. */
+	void setMoveCounters(final BoardBuilder builder) {
+		builder.setHalfMoveClock(this.movedPiece.getPieceType().isPawn() || isAttack() ?
+				0 : this.board.getHalfMoveClock() + 1);
+		builder.setFullMoveNumber(this.movedPiece.getPieceColor().isBlack() ?
+				this.board.getFullMoveNumber() + 1 : this.board.getFullMoveNumber());
+	}
+	
+	long calculateZobristKey() {
+		final int currentCoordinate = getCurrentCoordinate();
+		final int castlingRights = this.board.getCastlingRights();
+		return this.board.zobristKey() ^ Zobrist.sideKey() ^
+			   Zobrist.pieceKey(this.movedPiece, currentCoordinate) ^
+			   Zobrist.pieceKey(this.movedPiece, this.destinationCoordinate) ^
+			   Zobrist.castlingKey(castlingRights) ^
+			   Zobrist.castlingKey(castlingRights & BoardUtils.CASTLING_RIGHTS_MASK[currentCoordinate] &
+					   BoardUtils.CASTLING_RIGHTS_MASK[this.destinationCoordinate]) ^
+			   Zobrist.enPassantKey(this.board.getEnPassantPawn());
+	}
+	
 	public static final class MajorMove extends Move {
 		
 		public MajorMove(final Board board, final Piece movedPiece, 
@@ -146,6 +170,11 @@ public abstract class Move {
 			return this.attackedPiece;
 		}
 		
+		@Override
+		long calculateZobristKey() {
+			return super.calculateZobristKey() ^ Zobrist.pieceKey(this.attackedPiece);
+		}
+		
 		@Override
 		public int hashCode() {
 			return this.attackedPiece.hashCode() + super.hashCode();
@@ -237,29 +266,15 @@ public abstract class Move {
 		@Override
 		public Board execute() {
 			final BoardBuilder builder = new BoardBuilder();
-			for (final Piece piece : this.board.currentPlayer().getActivePieces()) {
-				if (!this.movedPiece.equals(piece)) {
-					builder.setPiece(piece);
-				}
-			}
-			for (final Piece piece : this.board.currentPlayer().getOpponent().getActivePieces()) {
-				if (!piece.equals(this.getAttackedPiece())) {
+			for (final Piece piece : this.board.getAllPieces()) {
+				if (piece != this.movedPiece && piece != this.getAttackedPiece()) {
 					builder.setPiece(piece);
 				}
 			}
 			builder.setPiece(this.movedPiece.movePiece(this));
 			builder.setMoveMaker(this.board.currentPlayer().getOpponent().getColor());
-			return builder.build();
-		}
-		
-		@Override
-		public Board undo() {
-			final BoardBuilder builder = new BoardBuilder();
-			for (final Piece piece : this.board.getAllPieces()) {
-				builder.setPiece(piece);
-			}
-			builder.setEnPassantPawn((Pawn) this.getAttackedPiece());
-			builder.setMoveMaker(this.board.currentPlayer().getColor());
+			setMoveCounters(builder);
+			builder.setZobristKey(calculateZobristKey());
 			return builder.build();
 		}
 		
@@ -275,21 +290,25 @@ public abstract class Move {
 		@Override
 		public Board execute() {
 			final BoardBuilder builder = new BoardBuilder();
-			for (final Piece piece : this.board.currentPlayer().getActivePieces()) {
-				if (!this.movedPiece.equals(piece)) {
+			for (final Piece piece : this.board.getAllPieces()) {
+				if (piece != this.movedPiece) {
 					builder.setPiece(piece);
 				}
 			}
-			for (final Piece piece : this.board.currentPlayer().getOpponent().getActivePieces()) {
-				builder.setPiece(piece);
-			}
 			final Pawn movedPawn = (Pawn) this.movedPiece.movePiece(this);
 			builder.setPiece(movedPawn);
 			builder.setEnPassantPawn(movedPawn);
 			builder.setMoveMaker(this.board.currentPlayer().getOpponent().getColor());
+			setMoveCounters(builder);
+			builder.setZobristKey(calculateZobristKey());
 			return builder.build();
 		}
 		
+		@Override
+		long calculateZobristKey() {
+			return super.calculateZobristKey() ^ Zobrist.enPassantKey(this.destinationCoordinate);
+		}
+		
 		@Override
 		public boolean equals(final Object other) {
 			return this == other || other instanceof PawnJump && super.equals(other);
@@ -304,29 +323,40 @@ public abstract class Move {
 	public static class PawnPromotion extends Move {
 		final Move decoratedMove;
 		final Pawn promotedPawn;
+		final PieceType promotionType;
 		
 		public PawnPromotion(final Move decoratedMove) {
+			this(decoratedMove, PieceType.QUEEN);
+		}
+		
+		public PawnPromotion(final Move decoratedMove, final PieceType promotionType) {
 			super(decoratedMove.getBoard(), decoratedMove.getMovedPiece(), 
 					decoratedMove.getDestinationCoordinate());
 			this.decoratedMove = decoratedMove;
 			this.promotedPawn = (Pawn) decoratedMove.getMovedPiece();
+			this.promotionType = promotionType;
+		}
+		
+		public PieceType getPromotionType() {
+			return this.promotionType;
 		}
 		
 		@Override
 		public int hashCode() {
-			return decoratedMove.hashCode() + (31 * promotedPawn.hashCode());
+			return decoratedMove.hashCode() + (31 * promotedPawn.hashCode()) + this.promotionType.hashCode();
 		}
 		
 		@Override
 		public boolean equals(final Object other) {
-			return this == other || other instanceof PawnPromotion && (super.equals(other));
+			return this == other || other instanceof PawnPromotion && (super.equals(other)) &&
+					this.promotionType == ((PawnPromotion) other).promotionType;
 		}
 		
 		@Override
 		public String toString() {
 			return BoardUtils.getPositionAtCoordinate(this.movedPiece.getPiecePosition()) +
 					"-" + BoardUtils.getPositionAtCoordinate(this.destinationCoordinate) + 
-					"=" + PieceType.QUEEN;
+					"=" + this.promotionType;
 		}
 		
 		@Override
@@ -334,18 +364,27 @@ public abstract class Move {
 			final Board pawnMovedBoard = this.decoratedMove.execute();
 			final BoardBuilder builder = new BoardBuilder();
 			for (final Piece piece : pawnMovedBoard.currentPlayer().getActivePieces()) {
-				if (!this.promotedPawn.equals(piece)) {
+				if (piece != this.promotedPawn) {
 					builder.setPiece(piece);
 				}
 			}
 			for (final Piece piece : pawnMovedBoard.currentPlayer().getOpponent().getActivePieces()) {
 				builder.setPiece(piece);
 			}
-			builder.setPiece(this.promotedPawn.getPromotionPiece().movePiece(this));
+			builder.setPiece(this.promotedPawn.getPromotionPiece(this.promotionType).movePiece(this));
 			builder.setMoveMaker(pawnMovedBoard.currentPlayer().getColor());
+			setMoveCounters(builder);
+			builder.setZobristKey(calculateZobristKey());
 			return builder.build();
 		}
 		
+		@Override
+		long calculateZobristKey() {
+			return this.decoratedMove.calculateZobristKey() ^
+				   Zobrist.pieceKey(this.promotedPawn, this.destinationCoordinate) ^
+				   Zobrist.pieceKey(this.promotedPawn.getPromotionPiece(this.promotionType), this.destinationCoordinate);
+		}
+		
 		@Override
 		public boolean isAttack() {
 			return this.decoratedMove.isAttack();
@@ -384,20 +423,26 @@ public abstract class Move {
 		@Override
 		public Board execute() {
 			final BoardBuilder builder = new BoardBuilder();
-			for (final Piece piece : this.board.currentPlayer().getActivePieces()) {
-				if (!this.movedPiece.equals(piece) && !this.castleRook.equals(piece)) {
+			for (final Piece piece : this.board.getAllPieces()) {
+				if (piece != this.movedPiece && piece != this.castleRook) {
 					builder.setPiece(piece);
 				}
 			}
-			for (final Piece piece : this.board.currentPlayer().getOpponent().getActivePieces()) {
-				builder.setPiece(piece);
-			}
 			builder.setPiece(this.movedPiece.movePiece(this));
-			builder.setPiece(new Rook(this.castleRookDestination, this.castleRook.getPieceColor()));
+			builder.setPiece(PieceCache.get(PieceType.ROOK, this.castleRook.getPieceColor(), this.castleRookDestination, false));
 			builder.setMoveMaker(this.board.currentPlayer().getOpponent().getColor());
+			setMoveCounters(builder);
+			builder.setZobristKey(calculateZobristKey());
 			return builder.build();
 		}
 		
+		@Override
+		long calculateZobristKey() {
+			return super.calculateZobristKey() ^
+				   Zobrist.pieceKey(this.castleRook, this.castleRookStart) ^
+				   Zobrist.pieceKey(this.castleRook, this.castleRookDestination);
+		}
+		
 		@Override
 		public int hashCode() {
 			final int prime = 31;
@@ -490,13 +535,7 @@ public abstract class Move {
 				final int currentCoordinate,
 				final int destinationCoordinate) {
 			
-			for (final Move move : board.currentPlayer().getLegalMoves()) {
-				if (move.getCurrentCoordinate() == currentCoordinate &&
-						move.getDestinationCoordinate() == destinationCoordinate) {
-					return move;
-				}
-			}
-			return NULL_MOVE;
+			return board.currentPlayer().getLegalMove(currentCoordinate, destinationCoordinate);
 		}
 	}
 
@@ -0,0 +1,165 @@
+package com.chess.engine.board;
+
+import com.chess.engine.board.Move.KingSideCastleMove;
+import com.chess.engine.board.Move.MajorAttackMove;
+import com.chess.engine.board.Move.MajorMove;
+import com.chess.engine.board.Move.PawnAttackMove;
+import com.chess.engine.board.Move.PawnEnPassantAttackMove;
+import com.chess.engine.board.Move.PawnJump;
+import com.chess.engine.board.Move.PawnMove;
+import com.chess.engine.board.Move.PawnPromotion;
+import com.chess.engine.board.Move.QueenSideCastleMove;
+import com.chess.engine.pieces.Piece;
+import com.chess.engine.pieces.Piece.PieceType;
+import com.chess.engine.pieces.Rook;
+
+/**
+ * Moves packed into a single int:
+ * <pre>
+ *  bits  0-5   from square
+ *  bits  6-11  to square
+ *  bits 12-15  flags
+ *  bits 16-19  moved piece index
+ *  bits 20-23  captured piece index + 1 (0 when nothing is captured)
+ *  bits 24-27  promotion piece type (0 when the move is not a promotion)
+ * </pre>
+ * Piece indexes are those of {@link BoardUtils#pieceIndex}. {@link #toMove}
+ * and {@link #encode} convert between packed moves and {@link Move} objects.
+ */
+public final class MoveEncoding {
+	public static final int NULL_MOVE = 0;
+	public static final int NO_PIECE = -1;
+
+	public static final int QUIET = 0;
+	public static final int PAWN_JUMP = 1;
+	public static final int KING_SIDE_CASTLE = 2;
+	public static final int QUEEN_SIDE_CASTLE = 3;
+	public static final int CAPTURE = 4;
+	public static final int EN_PASSANT = 5;
+	public static final int PROMOTION = 8;
+	public static final int PROMOTION_CAPTURE = 12;
+
+	private static final PieceType[] PIECE_TYPES = PieceType.values();
+
+	private MoveEncoding() {
+		throw new RuntimeException("Cannot instantiate MoveEncoding");
+	}
+
+	public static int create(final int from, final int to, final int flags, final int movedPiece,
+							 final int capturedPiece, final int promotionType) {
+		return from | (to << 6) | (flags << 12) | (movedPiece << 16) |
+			   ((capturedPiece + 1) << 20) | (promotionType << 24);
+	}
+
+	public static int create(final int from, final int to, final int flags, final int movedPiece) {
+		return create(from, to, flags, movedPiece, NO_PIECE, 0);
+	}
+
+	public static int getFrom(final int move) {
+		return move & 0x3F;
+	}
+
+	public static int getTo(final int move) {
+		return (move >>> 6) & 0x3F;
+	}
+
+	public static int getFlags(final int move) {
+		return (move >>> 12) & 0xF;
+	}
+
+	public static int getMovedPiece(final int move) {
+		return (move >>> 16) & 0xF;
+	}
+
+	public static int getCapturedPiece(final int move) {
+		return ((move >>> 20) & 0xF) - 1;
+	}
+
+	public static int getPromotionType(final int move) {
+		return (move >>> 24) & 0xF;
+	}
+
+	public static PieceType getMovedPieceType(final int move) {
+		return PIECE_TYPES[getMovedPiece(move) % BoardUtils.NUM_PIECE_TYPES];
+	}
+
+	public static PieceType getCapturedPieceType(final int move) {
+		final int capturedPiece = getCapturedPiece(move);
+		return capturedPiece == NO_PIECE ? null : PIECE_TYPES[capturedPiece % BoardUtils.NUM_PIECE_TYPES];
+	}
+
+	public static boolean isCapture(final int move) {
+		return (getFlags(move) & CAPTURE) != 0;
+	}
+
+	public static boolean isPromotion(final int move) {
+		return (getFlags(move) & PROMOTION) != 0;
+	}
+
+	public static boolean isCastle(final int move) {
+		final int flags = getFlags(move);
+		return flags == KING_SIDE_CASTLE || flags == QUEEN_SIDE_CASTLE;
+	}
+
+	public static String toString(final int move) {
+		return BoardUtils.getPositionAtCoordinate(getFrom(move)) +
+				BoardUtils.getPositionAtCoordinate(getTo(move)) +
+				(isPromotion(move) ? "=" + PIECE_TYPES[getPromotionType(move)] : "");
+	}
+
+	public static Move toMove(final Board board, final int move) {
+		final int from = getFrom(move);
+		final int to = getTo(move);
+		final Piece movedPiece = board.getPiece(from);
+		switch (getFlags(move)) {
+			case QUIET:
+				return movedPiece.getPieceType() == PieceType.PAWN ? new PawnMove(board, movedPiece, to) :
+						new MajorMove(board, movedPiece, to);
+			case PAWN_JUMP:
+				return new PawnJump(board, movedPiece, to);
+			case KING_SIDE_CASTLE:
+				return new KingSideCastleMove(board, movedPiece, to, (Rook) board.getPiece(to + 1), to + 1, to - 1);
+			case QUEEN_SIDE_CASTLE:
+				return new QueenSideCastleMove(board, movedPiece, to, (Rook) board.getPiece(to - 2), to - 2, to + 1);
+			case CAPTURE:
+				return movedPiece.getPieceType() == PieceType.PAWN ?
+						new PawnAttackMove(board, movedPiece, to, board.getPiece(to)) :
+						new MajorAttackMove(board, movedPiece, to, board.getPiece(to));
+			case EN_PASSANT:
+				return new PawnEnPassantAttackMove(board, movedPiece, to, board.getEnPassantPawn());
+			case PROMOTION:
+				return new PawnPromotion(new PawnMove(board, movedPiece, to), PIECE_TYPES[getPromotionType(move)]);
+			case PROMOTION_CAPTURE:
+				return new PawnPromotion(new PawnAttackMove(board, movedPiece, to, board.getPiece(to)),
+						PIECE_TYPES[getPromotionType(move)]);
+			default:
+				throw new RuntimeException("Not a valid move encoding: " + move);
+		}
+	}
+
+	public static int encode(final Move move) {
+		if (move == Move.NULL_MOVE) {
+			return NULL_MOVE;
+		}
+		final Piece movedPiece = move.getMovedPiece();
+		final int from = move.getCurrentCoordinate();
+		final int to = move.getDestinationCoordinate();
+		final Piece attackedPiece = move.getAttackedPiece();
+		final int capturedPiece = attackedPiece != null ? BoardUtils.pieceIndex(attackedPiece) : NO_PIECE;
+		final int flags;
+		if (move.isCastlingMove()) {
+			flags = to > from ? KING_SIDE_CASTLE : QUEEN_SIDE_CASTLE;
+		} else if (move instanceof PawnPromotion) {
+			flags = move.isAttack() ? PROMOTION_CAPTURE : PROMOTION;
+		} else if (move instanceof PawnEnPassantAttackMove) {
+			flags = EN_PASSANT;
+		} else if (move instanceof PawnJump) {
+			flags = PAWN_JUMP;
+		} else {
+			flags = move.isAttack() ? CAPTURE : QUIET;
+		}
+		return create(from, to, flags, BoardUtils.pieceIndex(movedPiece), capturedPiece,
+				(flags & PROMOTION) != 0 ? ((PawnPromotion) move).getPromotionType().ordinal() : 0);
+	}
+
+}
@@ -0,0 +1,91 @@
+package com.chess.engine.board;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts how much of the lazily computed per-board data is actually requested.
+ * Every board could produce two standard move lists, two castle lists and two
+ * check tests; whatever was not asked for was never generated.
+ * <p>
+ * Counting sits on the hottest paths of board creation and move generation,
+ * so it is off unless the JVM runs with {@code -Dcogito.moveGenerationStats=true}.
+ * When on, each counter is a {@link LongAdder}, so parallel perft workers do
+ * not contend on one cache line.
+ */
+public final class MoveGenerationStats {
+	public static final boolean ENABLED = Boolean.getBoolean("cogito.moveGenerationStats");
+	private static final LongAdder BOARDS_CREATED = new LongAdder();
+	private static final LongAdder MOVE_LISTS_GENERATED = new LongAdder();
+	private static final LongAdder CASTLE_LISTS_GENERATED = new LongAdder();
+	private static final LongAdder CHECK_TESTS_CALCULATED = new LongAdder();
+
+	private MoveGenerationStats() {
+		throw new RuntimeException("Cannot instantiate MoveGenerationStats");
+	}
+
+	static void boardCreated() {
+		if (ENABLED) {
+			BOARDS_CREATED.increment();
+		}
+	}
+
+	static void moveListGenerated() {
+		if (ENABLED) {
+			MOVE_LISTS_GENERATED.increment();
+		}
+	}
+
+	public static void castleListGenerated() {
+		if (ENABLED) {
+			CASTLE_LISTS_GENERATED.increment();
+		}
+	}
+
+	public static void checkTestCalculated() {
+		if (ENABLED) {
+			CHECK_TESTS_CALCULATED.increment();
+		}
+	}
+
+	public static long boardsCreated() {
+		return BOARDS_CREATED.sum();
+	}
+
+	public static long moveListsGenerated() {
+		return MOVE_LISTS_GENERATED.sum();
+	}
+
+	public static long castleListsGenerated() {
+		return CASTLE_LISTS_GENERATED.sum();
+	}
+
+	public static long checkTestsCalculated() {
+		return CHECK_TESTS_CALCULATED.sum();
+	}
+
+	public static void reset() {
+		BOARDS_CREATED.reset();
+		MOVE_LISTS_GENERATED.reset();
+		CASTLE_LISTS_GENERATED.reset();
+		CHECK_TESTS_CALCULATED.reset();
+	}
+
+	public static String report() {
+		if (!ENABLED) {
+			return "move generation stats off (-Dcogito.moveGenerationStats=true)";
+		}
+		final long eager = 2 * boardsCreated();
+		return String.format("boards = %d, move lists = %d/%d, castle lists = %d/%d, check tests = %d/%d, avoided = %.1f%%",
+				boardsCreated(), moveListsGenerated(), eager, castleListsGenerated(), eager,
+				checkTestsCalculated(), eager, percentAvoided(eager));
+	}
+
+	private static double percentAvoided(final long eager) {
+		if (eager == 0) {
+			return 0.0;
+		}
+		final long generated = moveListsGenerated() + castleListsGenerated() + checkTestsCalculated();
+		return 100.0 * (3 * eager - generated) / (3 * eager);
+	}
+
+}
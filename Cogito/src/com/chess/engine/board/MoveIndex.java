@@ -0,0 +1,77 @@
+package com.chess.engine.board;
+
+import java.util.Collection;
+
+import com.chess.engine.board.Move.PawnPromotion;
+import com.chess.engine.pieces.Piece.PieceType;
+
+/**
+ * Open-addressed lookup table from a from square, to square and promotion
+ * type to one position's legal {@link Move}. Built once from a legal move
+ * list, it answers legality checks and from/to move resolution without
+ * scanning the list.
+ */
+public final class MoveIndex {
+	private static final int NO_PROMOTION = 0;
+	private static final int MIN_CAPACITY_BITS = 4;
+
+	private final int[] keys;
+	private final Move[] moves;
+	private final int shift;
+
+	public MoveIndex(final Collection<Move> legalMoves) {
+		int bits = MIN_CAPACITY_BITS;
+		while ((1 << bits) < 2 * legalMoves.size()) {
+			bits++;
+		}
+		this.keys = new int[1 << bits];
+		this.moves = new Move[1 << bits];
+		this.shift = Integer.SIZE - bits;
+		for (final Move move : legalMoves) {
+			int slot = slot(keyOf(move));
+			while (this.moves[slot] != null) {
+				slot = (slot + 1) & (this.keys.length - 1);
+			}
+			this.keys[slot] = keyOf(move);
+			this.moves[slot] = move;
+		}
+	}
+
+	/** The legal move equal to the given one, or null if it is not legal here. */
+	public Move get(final Move move) {
+		final Move indexedMove = get(keyOf(move));
+		return indexedMove != null && indexedMove.equals(move) ? indexedMove : null;
+	}
+
+	/** The legal move between two squares, promoting to a queen if it is a promotion, or null if there is none. */
+	public Move get(final int currentCoordinate, final int destinationCoordinate) {
+		final Move move = get(key(currentCoordinate, destinationCoordinate, NO_PROMOTION));
+		return move != null ? move :
+				get(key(currentCoordinate, destinationCoordinate, PieceType.QUEEN.ordinal()));
+	}
+
+	private Move get(final int key) {
+		int slot = slot(key);
+		while (this.moves[slot] != null) {
+			if (this.keys[slot] == key) {
+				return this.moves[slot];
+			}
+			slot = (slot + 1) & (this.keys.length - 1);
+		}
+		return null;
+	}
+
+	private int slot(final int key) {
+		return (key * 0x9E3779B9) >>> this.shift;
+	}
+
+	private static int keyOf(final Move move) {
+		return key(move.getCurrentCoordinate(), move.getDestinationCoordinate(), move instanceof PawnPromotion ?
+				((PawnPromotion) move).getPromotionType().ordinal() : NO_PROMOTION);
+	}
+
+	private static int key(final int currentCoordinate, final int destinationCoordinate, final int promotionType) {
+		return currentCoordinate | (destinationCoordinate << 6) | (promotionType << 12);
+	}
+
+}
@@ -0,0 +1,71 @@
+package com.chess.engine.board;
+
+/**
+ * Fixed-size buffer of packed moves (see {@link MoveEncoding}). A search
+ * keeps one list per ply in a {@link PlyStack} and refills it at every node,
+ * so move generation does not allocate.
+ */
+public final class MoveList {
+	public static final int MAX_MOVES = 256;
+
+	final int[] moves;
+	int size;
+
+	public MoveList() {
+		this.moves = new int[MAX_MOVES];
+		this.size = 0;
+	}
+
+	public int size() {
+		return this.size;
+	}
+
+	public boolean isEmpty() {
+		return this.size == 0;
+	}
+
+	public int get(final int index) {
+		return this.moves[index];
+	}
+
+	public void set(final int index, final int move) {
+		this.moves[index] = move;
+	}
+
+	public void swap(final int i, final int j) {
+		final int move = this.moves[i];
+		this.moves[i] = this.moves[j];
+		this.moves[j] = move;
+	}
+
+	public void clear() {
+		this.size = 0;
+	}
+
+	@Override
+	public String toString() {
+		final StringBuilder builder = new StringBuilder("[");
+		for (int i = 0; i < this.size; i++) {
+			builder.append(i == 0 ? "" : ", ").append(MoveEncoding.toString(this.moves[i]));
+		}
+		return builder.append("]").toString();
+	}
+
+	public static final class PlyStack {
+		private final MoveList[] lists;
+
+		public PlyStack(final int maxPly) {
+			this.lists = new MoveList[maxPly];
+		}
+
+		public MoveList get(final int ply) {
+			MoveList list = this.lists[ply];
+			if (list == null) {
+				list = new MoveList();
+				this.lists[ply] = list;
+			}
+			return list;
+		}
+	}
+
+}
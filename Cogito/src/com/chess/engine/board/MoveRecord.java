@@ -0,0 +1,68 @@
+package com.chess.engine.board;
+
+import com.chess.engine.pieces.Piece;
+
+/**
+ * A played move kept apart from the {@link Board} it was played on. A
+ * {@link Move} holds its board, and through the board every legal move
+ * list of that position; a record holds only the packed move, its
+ * notation and the (interned) pieces involved, so a game's history stays
+ * small. {@link #replay} re-derives the move on a board when needed.
+ */
+public final class MoveRecord {
+	private final int move;
+	private final String notation;
+	private final Piece movedPiece;
+	private final Piece capturedPiece;
+
+	private MoveRecord(final Move move) {
+		this.move = MoveEncoding.encode(move);
+		this.notation = move.toString();
+		this.movedPiece = move.getMovedPiece();
+		this.capturedPiece = move.getAttackedPiece();
+	}
+
+	public static MoveRecord of(final Move move) {
+		if (move == Move.NULL_MOVE) {
+			throw new RuntimeException("Cannot record the null move");
+		}
+		return new MoveRecord(move);
+	}
+
+	public int getMove() {
+		return this.move;
+	}
+
+	public Piece getMovedPiece() {
+		return this.movedPiece;
+	}
+
+	public boolean isCapture() {
+		return this.capturedPiece != null;
+	}
+
+	public Piece getCapturedPiece() {
+		return this.capturedPiece;
+	}
+
+	/** Plays the recorded move on the board it was recorded from. */
+	public MoveTransition replay(final Board board) {
+		return board.currentPlayer().makeMove(MoveEncoding.toMove(board, this.move));
+	}
+
+	@Override
+	public boolean equals(final Object other) {
+		return this == other || other instanceof MoveRecord && this.move == ((MoveRecord) other).move;
+	}
+
+	@Override
+	public int hashCode() {
+		return this.move;
+	}
+
+	@Override
+	public String toString() {
+		return this.notation;
+	}
+
+}
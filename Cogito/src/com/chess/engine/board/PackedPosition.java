@@ -0,0 +1,167 @@
+package com.chess.engine.board;
+
+import com.chess.engine.board.Board.BoardBuilder;
+import com.chess.engine.pieces.Color;
+import com.chess.engine.pieces.Pawn;
+import com.chess.engine.pieces.Piece;
+import com.chess.engine.pieces.Piece.PieceType;
+
+/**
+ * A position in 32 bytes, holding what a FEN string holds:
+ * <pre>
+ *  bytes  0-7   occupancy bitboard
+ *  bytes  8-23  piece index of each occupied square, 4 bits each, in square order
+ *  bytes 24-31  bit 0 side to move (set for black), bits 1-4 castling rights,
+ *               bits 5-8 en passant file + 1 (0 when there is none),
+ *               bits 16-31 half move clock, bits 32-63 full move number
+ * </pre>
+ * Piece indexes are those of {@link BoardUtils#pieceIndex} and unused
+ * piece slots are zero, so two equal positions always pack to the same
+ * bytes. Packed positions compare by value and can be used as map keys,
+ * cache entries or fixed-size records on disk.
+ */
+public final class PackedPosition {
+	public static final int BYTES = 32;
+	private static final int MAX_PIECES = 32;
+	private static final int PIECES_PER_WORD = 16;
+	private static final int BLACK_TO_MOVE = 1;
+	private static final int CASTLING_SHIFT = 1;
+	private static final int EN_PASSANT_SHIFT = 5;
+	private static final int HALF_MOVE_SHIFT = 16;
+	private static final int FULL_MOVE_SHIFT = 32;
+	private static final Color[] COLORS = Color.values();
+	private static final PieceType[] PIECE_TYPES = PieceType.values();
+
+	private final long occupancy;
+	private final long lowPieces;
+	private final long highPieces;
+	private final long state;
+
+	private PackedPosition(final long occupancy, final long lowPieces, final long highPieces, final long state) {
+		this.occupancy = occupancy;
+		this.lowPieces = lowPieces;
+		this.highPieces = highPieces;
+		this.state = state;
+	}
+
+	public static PackedPosition of(final Board board) {
+		final long occupancy = board.getAllOccupancy();
+		if (Long.bitCount(occupancy) > MAX_PIECES) {
+			throw new RuntimeException("Cannot pack more than " + MAX_PIECES + " pieces");
+		}
+		final long[] pieces = new long[2];
+		int count = 0;
+		for (long bits = occupancy; bits != 0; bits &= bits - 1) {
+			final long pieceIndex = BoardUtils.pieceIndex(board.getPiece(Long.numberOfTrailingZeros(bits)));
+			pieces[count / PIECES_PER_WORD] |= pieceIndex << (4 * (count % PIECES_PER_WORD));
+			count++;
+		}
+		final Pawn enPassantPawn = board.getEnPassantPawn();
+		final long state = (board.currentPlayer().getColor().isBlack() ? BLACK_TO_MOVE : 0) |
+				(board.getCastlingRights() << CASTLING_SHIFT) |
+				((enPassantPawn != null ? enPassantPawn.getPiecePosition() % BoardUtils.NUM_TILES_PER_ROW + 1 : 0)
+						<< EN_PASSANT_SHIFT) |
+				((long) board.getHalfMoveClock() << HALF_MOVE_SHIFT) |
+				((long) board.getFullMoveNumber() << FULL_MOVE_SHIFT);
+		return new PackedPosition(occupancy, pieces[0], pieces[1], state);
+	}
+
+	public static PackedPosition fromBytes(final byte[] bytes) {
+		return fromBytes(bytes, 0);
+	}
+
+	public static PackedPosition fromBytes(final byte[] bytes, final int offset) {
+		return new PackedPosition(readLong(bytes, offset), readLong(bytes, offset + 8),
+				readLong(bytes, offset + 16), readLong(bytes, offset + 24));
+	}
+
+	public byte[] toBytes() {
+		final byte[] bytes = new byte[BYTES];
+		writeTo(bytes, 0);
+		return bytes;
+	}
+
+	public void writeTo(final byte[] bytes, final int offset) {
+		writeLong(bytes, offset, this.occupancy);
+		writeLong(bytes, offset + 8, this.lowPieces);
+		writeLong(bytes, offset + 16, this.highPieces);
+		writeLong(bytes, offset + 24, this.state);
+	}
+
+	public Board toBoard() {
+		final BoardBuilder builder = new BoardBuilder();
+		int count = 0;
+		for (long bits = this.occupancy; bits != 0; bits &= bits - 1) {
+			final long word = count < PIECES_PER_WORD ? this.lowPieces : this.highPieces;
+			final int pieceIndex = (int) (word >>> (4 * (count % PIECES_PER_WORD))) & 0xF;
+			if (pieceIndex >= BoardUtils.NUM_PIECE_INDEXES) {
+				throw new RuntimeException("Not a valid packed piece: " + pieceIndex);
+			}
+			builder.setPiece(BoardBuilder.createPiece(COLORS[pieceIndex / BoardUtils.NUM_PIECE_TYPES],
+					PIECE_TYPES[pieceIndex % BoardUtils.NUM_PIECE_TYPES], Long.numberOfTrailingZeros(bits)));
+			count++;
+		}
+		final int castlingRights = (int) (this.state >>> CASTLING_SHIFT) & BoardUtils.ALL_CASTLING_RIGHTS;
+		for (int right = 1; right <= castlingRights; right <<= 1) {
+			if ((castlingRights & right) != 0) {
+				builder.grantCastlingRight(right);
+			}
+		}
+		final boolean blackToMove = (this.state & BLACK_TO_MOVE) != 0;
+		builder.setMoveMaker(blackToMove ? Color.BLACK : Color.WHITE);
+		final int enPassantFile = (int) (this.state >>> EN_PASSANT_SHIFT) & 0xF;
+		if (enPassantFile != 0) {
+			final Piece pawn = builder.boardConfig[(blackToMove ? 4 : 3) * BoardUtils.NUM_TILES_PER_ROW +
+					enPassantFile - 1];
+			if (pawn == null || !pawn.getPieceType().isPawn()) {
+				throw new RuntimeException("No pawn to capture en passant in packed position");
+			}
+			builder.setEnPassantPawn((Pawn) pawn);
+		}
+		builder.setHalfMoveClock((int) (this.state >>> HALF_MOVE_SHIFT) & 0xFFFF);
+		builder.setFullMoveNumber((int) (this.state >>> FULL_MOVE_SHIFT));
+		return builder.build();
+	}
+
+	private static long readLong(final byte[] bytes, final int offset) {
+		long value = 0;
+		for (int i = 0; i < 8; i++) {
+			value = (value << 8) | (bytes[offset + i] & 0xFF);
+		}
+		return value;
+	}
+
+	private static void writeLong(final byte[] bytes, final int offset, final long value) {
+		for (int i = 0; i < 8; i++) {
+			bytes[offset + i] = (byte) (value >>> (56 - 8 * i));
+		}
+	}
+
+	@Override
+	public boolean equals(final Object other) {
+		if (this == other) {
+			return true;
+		}
+		if (!(other instanceof PackedPosition)) {
+			return false;
+		}
+		final PackedPosition otherPosition = (PackedPosition) other;
+		return this.occupancy == otherPosition.occupancy && this.lowPieces == otherPosition.lowPieces &&
+			   this.highPieces == otherPosition.highPieces && this.state == otherPosition.state;
+	}
+
+	@Override
+	public int hashCode() {
+		long hash = this.occupancy * 0x9E3779B97F4A7C15L;
+		hash = (hash ^ this.lowPieces) * 0x9E3779B97F4A7C15L;
+		hash = (hash ^ this.highPieces) * 0x9E3779B97F4A7C15L;
+		hash = (hash ^ this.state) * 0x9E3779B97F4A7C15L;
+		return (int) (hash ^ (hash >>> 32));
+	}
+
+	@Override
+	public String toString() {
+		return toBoard().toFen();
+	}
+
+}
@@ -0,0 +1,136 @@
+package com.chess.engine.board;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import com.chess.engine.board.Board.BoardBuilder;
+
+/**
+ * Counts the leaf nodes of the legal move tree to a fixed depth, through the
+ * same {@link Board}, {@link com.chess.engine.player.Player#makeMove} and
+ * {@link MoveTransition} path the game uses. The counts are compared against
+ * published values to validate move generation. Generated moves are all
+ * legal, so the last ply is counted from the size of the move list.
+ */
+public final class Perft {
+	public static final String START_POSITION = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+	public static final String KIWIPETE = "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1";
+	public static final String POSITION_3 = "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1";
+	public static final String POSITION_4 = "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1";
+	public static final String POSITION_5 = "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8";
+
+	private Perft() {
+		throw new RuntimeException("Cannot instantiate Perft");
+	}
+
+	public static long perft(final Board board, final int depth) {
+		if (depth == 0) {
+			return 1;
+		}
+		if (depth == 1) {
+			return board.currentPlayer().getLegalMoves().size();
+		}
+		long nodes = 0;
+		for (final Move move : board.currentPlayer().getLegalMoves()) {
+			final MoveTransition transition = board.currentPlayer().makeMove(move);
+			if (transition.getMoveStatus().isDone()) {
+				nodes += perft(transition.getTransitionBoard(), depth - 1);
+			}
+		}
+		return nodes;
+	}
+
+	/** Leaf counts below each legal root move, in generation order. */
+	public static Map<String, Long> divide(final Board board, final int depth) {
+		final Map<String, Long> counts = new LinkedHashMap<>();
+		for (final Move move : board.currentPlayer().getLegalMoves()) {
+			final MoveTransition transition = board.currentPlayer().makeMove(move);
+			if (transition.getMoveStatus().isDone()) {
+				counts.put(MoveEncoding.toString(MoveEncoding.encode(move)),
+						perft(transition.getTransitionBoard(), depth - 1));
+			}
+		}
+		return counts;
+	}
+
+	/** Same count as {@link #perft}, with each root move searched as its own fork-join task. */
+	public static long parallelPerft(final Board board, final int depth) {
+		return parallelPerft(board, depth, Runtime.getRuntime().availableProcessors());
+	}
+
+	public static long parallelPerft(final Board board, final int depth, final int threads) {
+		if (depth <= 1) {
+			return perft(board, depth);
+		}
+		final ForkJoinPool pool = new ForkJoinPool(threads);
+		try {
+			return pool.invoke(new RootTask(board, depth));
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	private static final class RootTask extends RecursiveTask<Long> {
+		private static final long serialVersionUID = 1L;
+		private final Board board;
+		private final int depth;
+
+		RootTask(final Board board, final int depth) {
+			this.board = board;
+			this.depth = depth;
+		}
+
+		@Override
+		protected Long compute() {
+			final List<SubtreeTask> subtrees = new ArrayList<>();
+			for (final Move move : this.board.currentPlayer().getLegalMoves()) {
+				final MoveTransition transition = this.board.currentPlayer().makeMove(move);
+				if (transition.getMoveStatus().isDone()) {
+					final SubtreeTask subtree = new SubtreeTask(transition.getTransitionBoard(), this.depth - 1);
+					subtree.fork();
+					subtrees.add(subtree);
+				}
+			}
+			long nodes = 0;
+			for (final SubtreeTask subtree : subtrees) {
+				nodes += subtree.join();
+			}
+			return nodes;
+		}
+	}
+
+	private static final class SubtreeTask extends RecursiveTask<Long> {
+		private static final long serialVersionUID = 1L;
+		private final Board board;
+		private final int depth;
+
+		SubtreeTask(final Board board, final int depth) {
+			this.board = board;
+			this.depth = depth;
+		}
+
+		@Override
+		protected Long compute() {
+			return perft(this.board, this.depth);
+		}
+	}
+
+	public static void main(final String[] args) {
+		final int depth = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+		final boolean parallel = args.length > 1 && args[1].equals("parallel");
+		final String[] positions = { START_POSITION, KIWIPETE, POSITION_3, POSITION_4, POSITION_5 };
+		for (final String fen : positions) {
+			final Board board = BoardBuilder.fromFen(fen);
+			final long start = System.currentTimeMillis();
+			final long nodes = parallel ? parallelPerft(board, depth) : perft(board, depth);
+			final long elapsed = Math.max(1, System.currentTimeMillis() - start);
+			System.out.printf("%s\n\tdepth = %d nodes = %d time = %d ms nps = %d\n",
+					fen, depth, nodes, elapsed, nodes * 1000 / elapsed);
+		}
+	}
+
+}
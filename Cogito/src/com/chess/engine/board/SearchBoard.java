@@ -0,0 +1,760 @@
+package com.chess.engine.board;
+
+import static com.chess.engine.board.MoveEncoding.CAPTURE;
+import static com.chess.engine.board.MoveEncoding.EN_PASSANT;
+import static com.chess.engine.board.MoveEncoding.KING_SIDE_CASTLE;
+import static com.chess.engine.board.MoveEncoding.PAWN_JUMP;
+import static com.chess.engine.board.MoveEncoding.PROMOTION;
+import static com.chess.engine.board.MoveEncoding.PROMOTION_CAPTURE;
+import static com.chess.engine.board.MoveEncoding.QUEEN_SIDE_CASTLE;
+import static com.chess.engine.board.MoveEncoding.QUIET;
+
+import com.chess.engine.pieces.Color;
+import com.chess.engine.pieces.King;
+import com.chess.engine.pieces.Piece;
+import com.chess.engine.pieces.Piece.PieceType;
+
+/**
+ * Mutable position used by the search. Moves are applied in place with
+ * {@link #makeMove(int)} and reverted with {@link #unmakeMove()}, so walking
+ * the game tree does not allocate a new {@link Board} per node.
+ */
+public final class SearchBoard {
+	public static final int MAX_PLY = 1024;
+	private static final int EMPTY = -1;
+	private static final int NO_SQUARE = -1;
+	private static final int WHITE = 0;
+	private static final int BLACK = 1;
+	private static final int PAWN = PieceType.PAWN.ordinal();
+	private static final int KNIGHT = PieceType.KNIGHT.ordinal();
+	private static final int BISHOP = PieceType.BISHOP.ordinal();
+	private static final int ROOK = PieceType.ROOK.ordinal();
+	private static final int QUEEN = PieceType.QUEEN.ordinal();
+	private static final int KING = PieceType.KING.ordinal();
+	private static final int MAX_PIECES_PER_TYPE = 10;
+	private static final int MAX_EXCHANGES = 32;
+	private static final int[] PIECE_VALUES = pieceValues();
+
+	private final long[] pieceBitBoards;
+	private final long[] colorOccupancy;
+	private final int[] squares;
+	private final int[][] pieceSquares;
+	private final int[] pieceCounts;
+	private final int[] pieceListIndex;
+	private final boolean[] castled;
+	private int sideToMove;
+	private int castlingRights;
+	private int enPassantSquare;
+	private int halfMoveClock;
+	private int fullMoveNumber;
+	private long zobristKey;
+	private int ply;
+	private long legalMovesKey;
+	private boolean hasLegalMovesKnown;
+	private boolean hasLegalMoves;
+	private final int[] moveStack;
+	private final int[] castlingStack;
+	private final int[] enPassantStack;
+	private final int[] halfMoveStack;
+	private final long[] keyStack;
+	private final int[] scratchMoves;
+	private final int[] exchangeGains;
+
+	public SearchBoard(final Board board) {
+		this.pieceBitBoards = new long[BoardUtils.NUM_PIECE_INDEXES];
+		this.colorOccupancy = new long[2];
+		this.squares = new int[BoardUtils.NUM_TILES];
+		this.pieceSquares = new int[BoardUtils.NUM_PIECE_INDEXES][MAX_PIECES_PER_TYPE];
+		this.pieceCounts = new int[BoardUtils.NUM_PIECE_INDEXES];
+		this.pieceListIndex = new int[BoardUtils.NUM_TILES];
+		this.castled = new boolean[2];
+		this.moveStack = new int[MAX_PLY];
+		this.castlingStack = new int[MAX_PLY];
+		this.enPassantStack = new int[MAX_PLY];
+		this.halfMoveStack = new int[MAX_PLY];
+		this.keyStack = new long[MAX_PLY];
+		this.scratchMoves = new int[MoveList.MAX_MOVES];
+		this.exchangeGains = new int[MAX_EXCHANGES];
+		for (int i = 0; i < BoardUtils.NUM_TILES; i++) {
+			final Piece piece = board.getPiece(i);
+			this.squares[i] = EMPTY;
+			if (piece != null) {
+				addPiece(i, BoardUtils.pieceIndex(piece));
+				if (piece.getPieceType().isKing()) {
+					this.castled[piece.getPieceColor().ordinal()] = ((King) piece).isCastled();
+				}
+			}
+		}
+		this.sideToMove = board.currentPlayer().getColor().ordinal();
+		this.castlingRights = board.getCastlingRights();
+		final Piece enPassantPawn = board.getEnPassantPawn();
+		this.enPassantSquare = enPassantPawn != null ? enPassantPawn.getPiecePosition() -
+				(enPassantPawn.getPieceColor().getDirection() * BoardUtils.NUM_TILES_PER_ROW) : NO_SQUARE;
+		this.halfMoveClock = board.getHalfMoveClock();
+		this.fullMoveNumber = board.getFullMoveNumber();
+		this.zobristKey = board.zobristKey();
+		this.ply = 0;
+		assert this.zobristKey == calculateZobristKey() : "Board and search board zobrist keys differ";
+	}
+
+	public Color currentColor() {
+		return this.sideToMove == WHITE ? Color.WHITE : Color.BLACK;
+	}
+
+	public long getPieceBitBoard(final Color color, final PieceType pieceType) {
+		return this.pieceBitBoards[BoardUtils.pieceIndex(color, pieceType)];
+	}
+
+	public long getOccupancy(final Color color) {
+		return this.colorOccupancy[color.ordinal()];
+	}
+
+	public int getPieceCount(final Color color, final PieceType pieceType) {
+		return this.pieceCounts[BoardUtils.pieceIndex(color, pieceType)];
+	}
+
+	/** Returns the square of one piece from the given piece list, for indexes below {@link #getPieceCount}. */
+	public int getPieceSquare(final Color color, final PieceType pieceType, final int index) {
+		return this.pieceSquares[BoardUtils.pieceIndex(color, pieceType)][index];
+	}
+
+	public int getKingSquare(final Color color) {
+		return kingSquare(color.ordinal());
+	}
+
+	public boolean isCastled(final Color color) {
+		return this.castled[color.ordinal()];
+	}
+
+	public boolean isCastleCapable(final Color color) {
+		final int rights = color.isWhite() ? BoardUtils.WHITE_KING_SIDE | BoardUtils.WHITE_QUEEN_SIDE :
+											 BoardUtils.BLACK_KING_SIDE | BoardUtils.BLACK_QUEEN_SIDE;
+		return (this.castlingRights & rights) != 0;
+	}
+
+	public int getHalfMoveClock() {
+		return this.halfMoveClock;
+	}
+
+	public int getFullMoveNumber() {
+		return this.fullMoveNumber;
+	}
+
+	public long zobristKey() {
+		return this.zobristKey;
+	}
+
+	public boolean isInCheck(final Color color) {
+		final int colorIndex = color.ordinal();
+		return isSquareAttacked(kingSquare(colorIndex), colorIndex ^ 1);
+	}
+
+	public boolean isInCheckMate(final Color color) {
+		return color.ordinal() == this.sideToMove && isInCheck(color) && !hasLegalMoves();
+	}
+
+	public boolean isInStaleMate(final Color color) {
+		return color.ordinal() == this.sideToMove && !isInCheck(color) && !hasLegalMoves();
+	}
+
+	/**
+	 * Whether the side to move has a legal move. The answer is remembered
+	 * against the position key, so the search's terminal test and the
+	 * evaluator's checkmate test on the same node share one probe.
+	 */
+	public boolean hasLegalMoves() {
+		if (!this.hasLegalMovesKnown || this.legalMovesKey != this.zobristKey) {
+			this.hasLegalMoves = probeLegalMoves();
+			this.legalMovesKey = this.zobristKey;
+			this.hasLegalMovesKnown = true;
+		}
+		return this.hasLegalMoves;
+	}
+
+	private boolean probeLegalMoves() {
+		final int numMoves = generateMoves(this.sideToMove, this.scratchMoves);
+		for (int i = 0; i < numMoves; i++) {
+			if (makeMove(this.scratchMoves[i])) {
+				unmakeMove();
+				return true;
+			}
+		}
+		return false;
+	}
+
+	public int countMoves(final Color color) {
+		final int colorIndex = color.ordinal();
+		final long targets = ~this.colorOccupancy[colorIndex];
+		int count = 0;
+		for (int pieceType = PAWN; pieceType <= KING; pieceType++) {
+			final int piece = pieceIndex(colorIndex, pieceType);
+			final int[] squaresOfPiece = this.pieceSquares[piece];
+			for (int i = 0; i < this.pieceCounts[piece]; i++) {
+				final int from = squaresOfPiece[i];
+				if (pieceType == PAWN) {
+					count += generatePawnMoves(colorIndex, from, piece, this.scratchMoves, 0);
+				} else {
+					count += Long.bitCount(Attacks.attacksFrom(pieceType, colorIndex, from, occupancy()) & targets);
+					if (pieceType == KING) {
+						count += generateCastleMoves(colorIndex, from, piece, this.scratchMoves, 0);
+					}
+				}
+			}
+		}
+		return count;
+	}
+
+	public int generateMoves(final MoveList moveList) {
+		moveList.size = generateMoves(this.sideToMove, moveList.moves);
+		return moveList.size;
+	}
+
+	/**
+	 * Captures and promotions of the side to move, the first stage of a
+	 * staged move picker. With {@link #generateQuietMoves(MoveList)} it
+	 * covers {@link #generateMoves(MoveList)}, but neither stage filters
+	 * check evasions, so in check generate all moves instead.
+	 */
+	public int generateCaptures(final MoveList moveList) {
+		final int color = this.sideToMove;
+		int count = 0;
+		final int piece = pieceIndex(color, PAWN);
+		for (int i = 0; i < this.pieceCounts[piece]; i++) {
+			count = generatePawnCaptures(color, this.pieceSquares[piece][i], piece, moveList.moves, count);
+		}
+		moveList.size = generatePieceMoves(color, this.colorOccupancy[color ^ 1], moveList.moves, count);
+		return moveList.size;
+	}
+
+	/** Non-capturing, non-promoting moves of the side to move, castling included. */
+	public int generateQuietMoves(final MoveList moveList) {
+		final int color = this.sideToMove;
+		int count = 0;
+		final int piece = pieceIndex(color, PAWN);
+		for (int i = 0; i < this.pieceCounts[piece]; i++) {
+			count = generatePawnPushes(color, this.pieceSquares[piece][i], piece, moveList.moves, count);
+		}
+		count = generatePieceMoves(color, ~occupancy(), moveList.moves, count);
+		moveList.size = generateCastleMoves(color, kingSquare(color), pieceIndex(color, KING), moveList.moves, count);
+		return moveList.size;
+	}
+
+	/**
+	 * The pseudo-legal move of the side to move between two squares, or
+	 * {@link MoveEncoding#NULL_MOVE} if there is none. Lets a search try a
+	 * remembered move, such as a hash move or a killer, before generating.
+	 */
+	public int findMove(final int from, final int to, final int promotionType) {
+		final int piece = this.squares[from];
+		if (piece == EMPTY || pieceColor(piece) != this.sideToMove) {
+			return MoveEncoding.NULL_MOVE;
+		}
+		final int color = this.sideToMove;
+		final int pieceType = pieceType(piece);
+		int count;
+		if (pieceType == PAWN) {
+			count = generatePawnMoves(color, from, piece, this.scratchMoves, 0);
+		} else {
+			count = generateTargetMoves(color, from, piece, Attacks.attacksFrom(pieceType, color, from, occupancy()) &
+					BoardUtils.squareMask(to), this.scratchMoves, 0);
+			if (pieceType == KING) {
+				count = generateCastleMoves(color, from, piece, this.scratchMoves, count);
+			}
+		}
+		for (int i = 0; i < count; i++) {
+			final int move = this.scratchMoves[i];
+			if (MoveEncoding.getTo(move) == to && MoveEncoding.getPromotionType(move) == promotionType) {
+				return move;
+			}
+		}
+		return MoveEncoding.NULL_MOVE;
+	}
+
+	/**
+	 * Static exchange evaluation: the material, in centipawns, the side to
+	 * move nets from a capture if both sides then keep recapturing on its
+	 * destination with their least valuable attacker, each free to stop when
+	 * going on would lose. Sliders uncovered behind a capturer join in; pins
+	 * and checks are ignored.
+	 */
+	public int staticExchange(final int move) {
+		final int from = MoveEncoding.getFrom(move);
+		final int to = MoveEncoding.getTo(move);
+		final int[] gains = this.exchangeGains;
+		final int capturedPiece = MoveEncoding.getCapturedPiece(move);
+		int pieceOnSquare = pieceType(this.squares[from]);
+		gains[0] = capturedPiece != MoveEncoding.NO_PIECE ? PIECE_VALUES[pieceType(capturedPiece)] : 0;
+		if (MoveEncoding.isPromotion(move)) {
+			pieceOnSquare = MoveEncoding.getPromotionType(move);
+			gains[0] += PIECE_VALUES[pieceOnSquare] - PIECE_VALUES[PAWN];
+		}
+		long occupancy = occupancy() ^ BoardUtils.squareMask(from);
+		if (MoveEncoding.getFlags(move) == EN_PASSANT) {
+			occupancy ^= BoardUtils.squareMask(enPassantVictimSquare(to, this.sideToMove));
+		}
+		int color = this.sideToMove ^ 1;
+		int exchanges = 0;
+		while (exchanges < MAX_EXCHANGES - 1) {
+			final long attackers = Attacks.attackersTo(to, color, this.pieceBitBoards, occupancy) & occupancy;
+			if (attackers == 0) {
+				break;
+			}
+			int attackerType = PAWN;
+			while ((attackers & this.pieceBitBoards[pieceIndex(color, attackerType)]) == 0) {
+				attackerType++;
+			}
+			exchanges++;
+			gains[exchanges] = PIECE_VALUES[pieceOnSquare] - gains[exchanges - 1];
+			if (Math.max(-gains[exchanges - 1], gains[exchanges]) < 0) {
+				break;
+			}
+			occupancy ^= Long.lowestOneBit(attackers & this.pieceBitBoards[pieceIndex(color, attackerType)]);
+			pieceOnSquare = attackerType;
+			color ^= 1;
+		}
+		while (exchanges > 0) {
+			exchanges--;
+			gains[exchanges] = -Math.max(-gains[exchanges], gains[exchanges + 1]);
+		}
+		return gains[0];
+	}
+
+	public int getPly() {
+		return this.ply;
+	}
+
+	public boolean makeMove(final int move) {
+		final int from = MoveEncoding.getFrom(move);
+		final int to = MoveEncoding.getTo(move);
+		final int flags = MoveEncoding.getFlags(move);
+		final int us = this.sideToMove;
+		final int movedPiece = this.squares[from];
+		final int capturedPiece = MoveEncoding.getCapturedPiece(move);
+		this.moveStack[this.ply] = move;
+		this.castlingStack[this.ply] = this.castlingRights;
+		this.enPassantStack[this.ply] = this.enPassantSquare;
+		this.halfMoveStack[this.ply] = this.halfMoveClock;
+		this.keyStack[this.ply] = this.zobristKey;
+		if (flags == EN_PASSANT) {
+			removePiece(enPassantVictimSquare(to, us));
+		} else if ((flags & CAPTURE) != 0) {
+			removePiece(to);
+		}
+		movePiece(from, to);
+		if ((flags & PROMOTION) != 0) {
+			removePiece(to);
+			addPiece(to, pieceIndex(us, MoveEncoding.getPromotionType(move)));
+		} else if (flags == KING_SIDE_CASTLE) {
+			movePiece(to + 1, to - 1);
+			this.castled[us] = true;
+		} else if (flags == QUEEN_SIDE_CASTLE) {
+			movePiece(to - 2, to + 1);
+			this.castled[us] = true;
+		}
+		this.zobristKey ^= Zobrist.castlingKey(this.castlingRights) ^ Zobrist.sideKey();
+		if (this.enPassantSquare != NO_SQUARE) {
+			this.zobristKey ^= Zobrist.enPassantKey(this.enPassantSquare);
+		}
+		this.castlingRights &= BoardUtils.CASTLING_RIGHTS_MASK[from] & BoardUtils.CASTLING_RIGHTS_MASK[to];
+		this.enPassantSquare = flags == PAWN_JUMP ? (from + to) / 2 : NO_SQUARE;
+		this.zobristKey ^= Zobrist.castlingKey(this.castlingRights);
+		if (this.enPassantSquare != NO_SQUARE) {
+			this.zobristKey ^= Zobrist.enPassantKey(this.enPassantSquare);
+		}
+		this.halfMoveClock = (pieceType(movedPiece) == PAWN || capturedPiece != MoveEncoding.NO_PIECE) ?
+				0 : this.halfMoveClock + 1;
+		if (us == BLACK) {
+			this.fullMoveNumber++;
+		}
+		this.sideToMove = us ^ 1;
+		this.ply++;
+		assert this.zobristKey == calculateZobristKey() : "Incremental zobrist key out of sync";
+		if (isSquareAttacked(kingSquare(us), us ^ 1)) {
+			unmakeMove();
+			return false;
+		}
+		return true;
+	}
+
+	public void unmakeMove() {
+		this.ply--;
+		final int move = this.moveStack[this.ply];
+		final int from = MoveEncoding.getFrom(move);
+		final int to = MoveEncoding.getTo(move);
+		final int flags = MoveEncoding.getFlags(move);
+		this.sideToMove ^= 1;
+		final int us = this.sideToMove;
+		if (us == BLACK) {
+			this.fullMoveNumber--;
+		}
+		if ((flags & PROMOTION) != 0) {
+			removePiece(to);
+			addPiece(to, pieceIndex(us, PAWN));
+		} else if (flags == KING_SIDE_CASTLE) {
+			movePiece(to - 1, to + 1);
+			this.castled[us] = false;
+		} else if (flags == QUEEN_SIDE_CASTLE) {
+			movePiece(to + 1, to - 2);
+			this.castled[us] = false;
+		}
+		movePiece(to, from);
+		final int capturedPiece = MoveEncoding.getCapturedPiece(move);
+		if (capturedPiece != MoveEncoding.NO_PIECE) {
+			addPiece(flags == EN_PASSANT ? enPassantVictimSquare(to, us) : to, capturedPiece);
+		}
+		this.castlingRights = this.castlingStack[this.ply];
+		this.enPassantSquare = this.enPassantStack[this.ply];
+		this.halfMoveClock = this.halfMoveStack[this.ply];
+		this.zobristKey = this.keyStack[this.ply];
+	}
+
+	/** Passes the turn without moving, for null-move pruning. The side to move must not be in check. */
+	public void makeNullMove() {
+		assert !isSquareAttacked(kingSquare(this.sideToMove), this.sideToMove ^ 1) : "Null move made in check";
+		this.moveStack[this.ply] = MoveEncoding.NULL_MOVE;
+		this.castlingStack[this.ply] = this.castlingRights;
+		this.enPassantStack[this.ply] = this.enPassantSquare;
+		this.halfMoveStack[this.ply] = this.halfMoveClock;
+		this.keyStack[this.ply] = this.zobristKey;
+		this.zobristKey ^= Zobrist.sideKey();
+		if (this.enPassantSquare != NO_SQUARE) {
+			this.zobristKey ^= Zobrist.enPassantKey(this.enPassantSquare);
+			this.enPassantSquare = NO_SQUARE;
+		}
+		this.halfMoveClock++;
+		if (this.sideToMove == BLACK) {
+			this.fullMoveNumber++;
+		}
+		this.sideToMove ^= 1;
+		this.ply++;
+		assert this.zobristKey == calculateZobristKey() : "Incremental zobrist key out of sync";
+	}
+
+	public void unmakeNullMove() {
+		this.ply--;
+		this.sideToMove ^= 1;
+		if (this.sideToMove == BLACK) {
+			this.fullMoveNumber--;
+		}
+		this.enPassantSquare = this.enPassantStack[this.ply];
+		this.halfMoveClock = this.halfMoveStack[this.ply];
+		this.zobristKey = this.keyStack[this.ply];
+	}
+
+	/** Whether the side to move has a piece other than pawns and its king, which makes zugzwang unlikely. */
+	public boolean hasNonPawnMaterial() {
+		final int us = this.sideToMove;
+		return this.pieceCounts[pieceIndex(us, KNIGHT)] + this.pieceCounts[pieceIndex(us, BISHOP)] +
+			   this.pieceCounts[pieceIndex(us, ROOK)] + this.pieceCounts[pieceIndex(us, QUEEN)] > 0;
+	}
+
+	private int generateMoves(final int color, final int[] moves) {
+		final int kingSquare = kingSquare(color);
+		final long checkers = Attacks.attackersTo(kingSquare, color ^ 1, this.pieceBitBoards, occupancy());
+		if (checkers != 0) {
+			return generateEvasions(color, kingSquare, checkers, moves);
+		}
+		int count = 0;
+		final int piece = pieceIndex(color, PAWN);
+		for (int i = 0; i < this.pieceCounts[piece]; i++) {
+			count = generatePawnMoves(color, this.pieceSquares[piece][i], piece, moves, count);
+		}
+		count = generatePieceMoves(color, ~0L, moves, count);
+		return generateCastleMoves(color, kingSquare, pieceIndex(color, KING), moves, count);
+	}
+
+	/** Moves of the knights, bishops, rooks, queens and king of a color to the given target squares. */
+	private int generatePieceMoves(final int color, final long targets, final int[] moves, int count) {
+		final long occupancy = occupancy();
+		int piece = pieceIndex(color, KNIGHT);
+		for (int i = 0; i < this.pieceCounts[piece]; i++) {
+			final int from = this.pieceSquares[piece][i];
+			count = generateTargetMoves(color, from, piece, JumpTables.knightMask(from) & targets, moves, count);
+		}
+		piece = pieceIndex(color, BISHOP);
+		for (int i = 0; i < this.pieceCounts[piece]; i++) {
+			final int from = this.pieceSquares[piece][i];
+			count = generateTargetMoves(color, from, piece,
+					Attacks.bishopAttacks(from, occupancy) & targets, moves, count);
+		}
+		piece = pieceIndex(color, ROOK);
+		for (int i = 0; i < this.pieceCounts[piece]; i++) {
+			final int from = this.pieceSquares[piece][i];
+			count = generateTargetMoves(color, from, piece,
+					Attacks.rookAttacks(from, occupancy) & targets, moves, count);
+		}
+		piece = pieceIndex(color, QUEEN);
+		for (int i = 0; i < this.pieceCounts[piece]; i++) {
+			final int from = this.pieceSquares[piece][i];
+			count = generateTargetMoves(color, from, piece,
+					Attacks.queenAttacks(from, occupancy) & targets, moves, count);
+		}
+		final int kingSquare = kingSquare(color);
+		return generateTargetMoves(color, kingSquare, pieceIndex(color, KING),
+				JumpTables.kingMask(kingSquare) & targets, moves, count);
+	}
+
+	/**
+	 * Moves that can answer a check: king steps first, then in single check
+	 * only captures of the checker and interpositions between it and the
+	 * king. In double check only the king moves. Pins are still left to
+	 * {@link #makeMove(int)}.
+	 */
+	private int generateEvasions(final int color, final int kingSquare, final long checkers, final int[] moves) {
+		int count = generateTargetMoves(color, kingSquare, pieceIndex(color, KING),
+				JumpTables.kingMask(kingSquare), moves, 0);
+		if ((checkers & (checkers - 1)) != 0) {
+			return count;
+		}
+		final int checker = Long.numberOfTrailingZeros(checkers);
+		final long checkMask = checkers | Attacks.between(kingSquare, checker);
+		final long occupancy = occupancy();
+		int piece = pieceIndex(color, PAWN);
+		for (int i = 0; i < this.pieceCounts[piece]; i++) {
+			final int start = count;
+			count = generatePawnMoves(color, this.pieceSquares[piece][i], piece, moves, count);
+			count = retainEvasions(color, checkMask, checker, moves, start, count);
+		}
+		piece = pieceIndex(color, KNIGHT);
+		for (int i = 0; i < this.pieceCounts[piece]; i++) {
+			final int from = this.pieceSquares[piece][i];
+			count = generateTargetMoves(color, from, piece, JumpTables.knightMask(from) & checkMask, moves, count);
+		}
+		piece = pieceIndex(color, BISHOP);
+		for (int i = 0; i < this.pieceCounts[piece]; i++) {
+			final int from = this.pieceSquares[piece][i];
+			count = generateTargetMoves(color, from, piece,
+					Attacks.bishopAttacks(from, occupancy) & checkMask, moves, count);
+		}
+		piece = pieceIndex(color, ROOK);
+		for (int i = 0; i < this.pieceCounts[piece]; i++) {
+			final int from = this.pieceSquares[piece][i];
+			count = generateTargetMoves(color, from, piece,
+					Attacks.rookAttacks(from, occupancy) & checkMask, moves, count);
+		}
+		piece = pieceIndex(color, QUEEN);
+		for (int i = 0; i < this.pieceCounts[piece]; i++) {
+			final int from = this.pieceSquares[piece][i];
+			count = generateTargetMoves(color, from, piece,
+					Attacks.queenAttacks(from, occupancy) & checkMask, moves, count);
+		}
+		return count;
+	}
+
+	/** Compacts moves[start, end) down to the pawn moves that land in the check mask or take the checker en passant. */
+	private static int retainEvasions(final int color, final long checkMask, final int checker,
+									  final int[] moves, final int start, final int end) {
+		int count = start;
+		for (int i = start; i < end; i++) {
+			final int to = MoveEncoding.getTo(moves[i]);
+			if ((checkMask & BoardUtils.squareMask(to)) != 0 ||
+					(MoveEncoding.getFlags(moves[i]) == EN_PASSANT && enPassantVictimSquare(to, color) == checker)) {
+				moves[count++] = moves[i];
+			}
+		}
+		return count;
+	}
+
+	private int generatePawnMoves(final int color, final int from, final int piece,
+								  final int[] moves, int count) {
+		final int oneStep = JumpTables.pawnPushDestination(color, from);
+		if (oneStep == JumpTables.NO_SQUARE) {
+			return count;
+		}
+		if (this.squares[oneStep] == EMPTY) {
+			if (isPromotionSquare(color, oneStep)) {
+				count = generatePromotions(from, oneStep, PROMOTION, piece, MoveEncoding.NO_PIECE, moves, count);
+			} else {
+				moves[count++] = MoveEncoding.create(from, oneStep, QUIET, piece);
+			}
+			final int twoSteps = JumpTables.pawnJumpDestination(color, from);
+			if (twoSteps != JumpTables.NO_SQUARE && this.squares[twoSteps] == EMPTY) {
+				moves[count++] = MoveEncoding.create(from, twoSteps, PAWN_JUMP, piece);
+			}
+		}
+		for (final int to : JumpTables.pawnAttackDestinations(color, from)) {
+			count = generatePawnAttack(color, from, to, piece, moves, count);
+		}
+		return count;
+	}
+
+	private int generatePawnCaptures(final int color, final int from, final int piece,
+									 final int[] moves, int count) {
+		final int oneStep = JumpTables.pawnPushDestination(color, from);
+		if (oneStep == JumpTables.NO_SQUARE) {
+			return count;
+		}
+		if (this.squares[oneStep] == EMPTY && isPromotionSquare(color, oneStep)) {
+			count = generatePromotions(from, oneStep, PROMOTION, piece, MoveEncoding.NO_PIECE, moves, count);
+		}
+		for (final int to : JumpTables.pawnAttackDestinations(color, from)) {
+			count = generatePawnAttack(color, from, to, piece, moves, count);
+		}
+		return count;
+	}
+
+	private int generatePawnPushes(final int color, final int from, final int piece,
+								   final int[] moves, int count) {
+		final int oneStep = JumpTables.pawnPushDestination(color, from);
+		if (oneStep == JumpTables.NO_SQUARE || this.squares[oneStep] != EMPTY || isPromotionSquare(color, oneStep)) {
+			return count;
+		}
+		moves[count++] = MoveEncoding.create(from, oneStep, QUIET, piece);
+		final int twoSteps = JumpTables.pawnJumpDestination(color, from);
+		if (twoSteps != JumpTables.NO_SQUARE && this.squares[twoSteps] == EMPTY) {
+			moves[count++] = MoveEncoding.create(from, twoSteps, PAWN_JUMP, piece);
+		}
+		return count;
+	}
+
+	private int generatePawnAttack(final int color, final int from, final int to,
+								   final int piece, final int[] moves, int count) {
+		final int target = this.squares[to];
+		if (target != EMPTY && pieceColor(target) != color) {
+			if (isPromotionSquare(color, to)) {
+				count = generatePromotions(from, to, PROMOTION_CAPTURE, piece, target, moves, count);
+			} else {
+				moves[count++] = MoveEncoding.create(from, to, CAPTURE, piece, target, 0);
+			}
+		} else if (target == EMPTY && to == this.enPassantSquare && color == this.sideToMove) {
+			moves[count++] = MoveEncoding.create(from, to, EN_PASSANT, piece, pieceIndex(color ^ 1, PAWN), 0);
+		}
+		return count;
+	}
+
+	private static int generatePromotions(final int from, final int to, final int flags, final int piece,
+										  final int target, final int[] moves, int count) {
+		for (int promotionType = QUEEN; promotionType >= KNIGHT; promotionType--) {
+			moves[count++] = MoveEncoding.create(from, to, flags, piece, target, promotionType);
+		}
+		return count;
+	}
+
+	private int generateTargetMoves(final int color, final int from, final int piece,
+									final long attacks, final int[] moves, int count) {
+		long targets = attacks & ~this.colorOccupancy[color];
+		while (targets != 0) {
+			final int to = Long.numberOfTrailingZeros(targets);
+			final int target = this.squares[to];
+			moves[count++] = target == EMPTY ? MoveEncoding.create(from, to, QUIET, piece) :
+					MoveEncoding.create(from, to, CAPTURE, piece, target, 0);
+			targets &= targets - 1;
+		}
+		return count;
+	}
+
+	private int generateCastleMoves(final int color, final int from, final int piece,
+									final int[] moves, int count) {
+		final int kingSide = color == WHITE ? BoardUtils.WHITE_KING_SIDE : BoardUtils.BLACK_KING_SIDE;
+		final int queenSide = color == WHITE ? BoardUtils.WHITE_QUEEN_SIDE : BoardUtils.BLACK_QUEEN_SIDE;
+		if ((this.castlingRights & (kingSide | queenSide)) == 0 ||
+				isSquareAttacked(from, color ^ 1)) {
+			return count;
+		}
+		if ((this.castlingRights & kingSide) != 0 &&
+				this.squares[from + 1] == EMPTY && this.squares[from + 2] == EMPTY &&
+				!isSquareAttacked(from + 1, color ^ 1) && !isSquareAttacked(from + 2, color ^ 1)) {
+			moves[count++] = MoveEncoding.create(from, from + 2, KING_SIDE_CASTLE, piece);
+		}
+		if ((this.castlingRights & queenSide) != 0 &&
+				this.squares[from - 1] == EMPTY && this.squares[from - 2] == EMPTY &&
+				this.squares[from - 3] == EMPTY &&
+				!isSquareAttacked(from - 1, color ^ 1) && !isSquareAttacked(from - 2, color ^ 1)) {
+			moves[count++] = MoveEncoding.create(from, from - 2, QUEEN_SIDE_CASTLE, piece);
+		}
+		return count;
+	}
+
+	private boolean isSquareAttacked(final int square, final int byColor) {
+		return Attacks.isSquareAttacked(square, byColor, this.pieceBitBoards, occupancy());
+	}
+
+	private long occupancy() {
+		return this.colorOccupancy[WHITE] | this.colorOccupancy[BLACK];
+	}
+
+	private int kingSquare(final int color) {
+		return this.pieceSquares[pieceIndex(color, KING)][0];
+	}
+
+	private void addPiece(final int square, final int piece) {
+		final long squareMask = BoardUtils.squareMask(square);
+		this.squares[square] = piece;
+		this.pieceListIndex[square] = this.pieceCounts[piece];
+		this.pieceSquares[piece][this.pieceCounts[piece]++] = square;
+		this.pieceBitBoards[piece] |= squareMask;
+		this.colorOccupancy[pieceColor(piece)] |= squareMask;
+		this.zobristKey ^= Zobrist.pieceKey(piece, square);
+	}
+
+	private void removePiece(final int square) {
+		final int piece = this.squares[square];
+		final long squareMask = BoardUtils.squareMask(square);
+		final int lastSquare = this.pieceSquares[piece][--this.pieceCounts[piece]];
+		this.pieceSquares[piece][this.pieceListIndex[square]] = lastSquare;
+		this.pieceListIndex[lastSquare] = this.pieceListIndex[square];
+		this.squares[square] = EMPTY;
+		this.pieceBitBoards[piece] &= ~squareMask;
+		this.colorOccupancy[pieceColor(piece)] &= ~squareMask;
+		this.zobristKey ^= Zobrist.pieceKey(piece, square);
+	}
+
+	private long calculateZobristKey() {
+		long key = Zobrist.castlingKey(this.castlingRights);
+		for (int i = 0; i < BoardUtils.NUM_TILES; i++) {
+			if (this.squares[i] != EMPTY) {
+				key ^= Zobrist.pieceKey(this.squares[i], i);
+			}
+		}
+		if (this.sideToMove == BLACK) {
+			key ^= Zobrist.sideKey();
+		}
+		if (this.enPassantSquare != NO_SQUARE) {
+			key ^= Zobrist.enPassantKey(this.enPassantSquare);
+		}
+		return key;
+	}
+
+	/** Moves a piece within its piece list slot, so make and unmake keep the list order stable. */
+	private void movePiece(final int from, final int to) {
+		final int piece = this.squares[from];
+		final long moveMask = BoardUtils.squareMask(from) | BoardUtils.squareMask(to);
+		this.squares[from] = EMPTY;
+		this.squares[to] = piece;
+		this.pieceListIndex[to] = this.pieceListIndex[from];
+		this.pieceSquares[piece][this.pieceListIndex[to]] = to;
+		this.pieceBitBoards[piece] ^= moveMask;
+		this.colorOccupancy[pieceColor(piece)] ^= moveMask;
+		this.zobristKey ^= Zobrist.pieceKey(piece, from) ^ Zobrist.pieceKey(piece, to);
+	}
+
+	private static int enPassantVictimSquare(final int to, final int color) {
+		return color == WHITE ? to + BoardUtils.NUM_TILES_PER_ROW : to - BoardUtils.NUM_TILES_PER_ROW;
+	}
+
+	private static boolean isPromotionSquare(final int color, final int square) {
+		return color == WHITE ? BoardUtils.FIRST_ROW[square] : BoardUtils.EIGHTH_ROW[square];
+	}
+
+	private static int[] pieceValues() {
+		final PieceType[] pieceTypes = PieceType.values();
+		final int[] values = new int[pieceTypes.length];
+		for (final PieceType pieceType : pieceTypes) {
+			values[pieceType.ordinal()] = pieceType.getPieceValue();
+		}
+		return values;
+	}
+
+	private static int pieceIndex(final int color, final int pieceType) {
+		return color * BoardUtils.NUM_PIECE_TYPES + pieceType;
+	}
+
+	private static int pieceType(final int piece) {
+		return piece % BoardUtils.NUM_PIECE_TYPES;
+	}
+
+	private static int pieceColor(final int piece) {
+		return piece / BoardUtils.NUM_PIECE_TYPES;
+	}
+
+}
@@ -4,12 +4,14 @@ import java.util.HashMap;
 import java.util.Map;
 
 import com.chess.engine.pieces.Piece;
+import com.chess.engine.pieces.PieceCache;
 import com.google.common.collect.ImmutableMap;
 
 
 public abstract class Tile {
     protected final int tileCoordinate;
     private static final Map<Integer, EmptyTile> EMPTY_TILES_CACHE = createAllEmptyTiles();
+    private static final OccupiedTile[] OCCUPIED_TILES_CACHE = createAllOccupiedTiles();
 
     private Tile(final int tileCoordinate) {
         this.tileCoordinate = tileCoordinate;
@@ -23,9 +25,24 @@ public abstract class Tile {
     	return ImmutableMap.copyOf(emptyTileMap);
     }
     
+    private static OccupiedTile[] createAllOccupiedTiles() {
+    	final OccupiedTile[] occupiedTiles = new OccupiedTile[PieceCache.NUM_SLOTS];
+    	for (int i = 0; i < PieceCache.NUM_SLOTS; i++) {
+    		final Piece piece = PieceCache.getPiece(i);
+    		if (piece != null) {
+    			occupiedTiles[i] = new OccupiedTile(piece.getPiecePosition(), piece);
+    		}
+    	}
+    	return occupiedTiles;
+    }
+    
     public static Tile createTile(final int tileCoordinate, final Piece piece) {
-    	return piece != null ? new OccupiedTile(tileCoordinate, piece) : 
-    						   EMPTY_TILES_CACHE.get(tileCoordinate);
+    	if (piece == null) {
+    		return EMPTY_TILES_CACHE.get(tileCoordinate);
+    	}
+    	final OccupiedTile cachedTile = OCCUPIED_TILES_CACHE[PieceCache.slotOf(piece)];
+    	return cachedTile.pieceOnTile == piece && cachedTile.tileCoordinate == tileCoordinate ?
+    			cachedTile : new OccupiedTile(tileCoordinate, piece);
     }
     
     public int getTileCoordinate() {
@@ -0,0 +1,83 @@
+package com.chess.engine.board;
+
+import java.util.Random;
+
+import com.chess.engine.pieces.Color;
+import com.chess.engine.pieces.Pawn;
+import com.chess.engine.pieces.Piece;
+
+/**
+ * Random keys for 64-bit Zobrist position hashing. A position key is the XOR
+ * of one key per (piece, square), the side-to-move key when black is to move,
+ * the key for the current castling rights and the key for the en-passant file.
+ */
+public final class Zobrist {
+	private static final long SEED = 0x5DEECE66DL;
+	private static final long[][] PIECE_KEYS = new long[BoardUtils.NUM_PIECE_INDEXES][BoardUtils.NUM_TILES];
+	private static final long[] CASTLING_KEYS = new long[BoardUtils.ALL_CASTLING_RIGHTS + 1];
+	private static final long[] EN_PASSANT_KEYS = new long[BoardUtils.NUM_TILES_PER_ROW];
+	private static final long SIDE_KEY;
+	
+	static {
+		final Random random = new Random(SEED);
+		for (int i = 0; i < BoardUtils.NUM_PIECE_INDEXES; i++) {
+			for (int j = 0; j < BoardUtils.NUM_TILES; j++) {
+				PIECE_KEYS[i][j] = random.nextLong();
+			}
+		}
+		for (int i = 0; i < CASTLING_KEYS.length; i++) {
+			CASTLING_KEYS[i] = random.nextLong();
+		}
+		for (int i = 0; i < EN_PASSANT_KEYS.length; i++) {
+			EN_PASSANT_KEYS[i] = random.nextLong();
+		}
+		SIDE_KEY = random.nextLong();
+	}
+	
+	private Zobrist() {
+		throw new RuntimeException("Cannot instantiate Zobrist");
+	}
+	
+	public static long pieceKey(final int pieceIndex, final int coordinate) {
+		return PIECE_KEYS[pieceIndex][coordinate];
+	}
+	
+	public static long pieceKey(final Piece piece, final int coordinate) {
+		return PIECE_KEYS[BoardUtils.pieceIndex(piece)][coordinate];
+	}
+	
+	public static long pieceKey(final Piece piece) {
+		return pieceKey(piece, piece.getPiecePosition());
+	}
+	
+	public static long castlingKey(final int castlingRights) {
+		return CASTLING_KEYS[castlingRights];
+	}
+	
+	public static long enPassantKey(final int coordinate) {
+		return EN_PASSANT_KEYS[coordinate % BoardUtils.NUM_TILES_PER_ROW];
+	}
+	
+	public static long enPassantKey(final Pawn enPassantPawn) {
+		return enPassantPawn != null ? enPassantKey(enPassantPawn.getPiecePosition()) : 0L;
+	}
+	
+	public static long sideKey() {
+		return SIDE_KEY;
+	}
+	
+	public static long calculateKey(final Piece[] boardPieces, final Color sideToMove,
+									final int castlingRights, final Pawn enPassantPawn) {
+		long key = 0L;
+		for (int i = 0; i < BoardUtils.NUM_TILES; i++) {
+			if (boardPieces[i] != null) {
+				key ^= pieceKey(boardPieces[i], i);
+			}
+		}
+		if (sideToMove.isBlack()) {
+			key ^= SIDE_KEY;
+		}
+		return key ^ castlingKey(castlingRights) ^ enPassantKey(enPassantPawn);
+	}
+
+}
@@ -9,6 +9,7 @@ import java.util.List;
 
 import com.chess.engine.board.Board;
 import com.chess.engine.board.BoardUtils;
+import com.chess.engine.board.JumpTables;
 import com.chess.engine.board.Move;
 import com.chess.engine.board.Move.PawnJump;
 import com.chess.engine.board.Move.PawnAttackMove;
@@ -19,7 +20,10 @@ import com.google.common.collect.ImmutableList;
 
 
 public class Pawn extends Piece {
-	private final static int[] POSSIBLE_MOVE_OFFSETS = { 7, 8, 9, 16 };
+	/** Promotion choices, queen first so callers picking the first match promote to a queen. */
+	private static final PieceType[] PROMOTION_TYPES = {
+		PieceType.QUEEN, PieceType.ROOK, PieceType.BISHOP, PieceType.KNIGHT
+	};
 
 	public Pawn(final int piecePosition, final Color pieceColor) {
 		super(PieceType.PAWN, piecePosition, pieceColor, true);
@@ -30,7 +34,19 @@ public class Pawn extends Piece {
 	}
 	
 	public Piece getPromotionPiece() {
-		return new Queen(this.piecePosition, this.pieceColor, false);
+		return getPromotionPiece(PieceType.QUEEN);
+	}
+	
+	public Piece getPromotionPiece(final PieceType promotionType) {
+		switch (promotionType) {
+			case KNIGHT:
+			case BISHOP:
+			case ROOK:
+			case QUEEN:
+				return PieceCache.get(promotionType, this.pieceColor, this.piecePosition, false);
+			default:
+				throw new RuntimeException("Cannot promote to " + promotionType);
+		}
 	}
 	
 	@Override
@@ -45,7 +61,7 @@ public class Pawn extends Piece {
 	
 	@Override
 	public Pawn movePiece(Move move) {
-		return new Pawn(move.getDestinationCoordinate(), move.getMovedPiece().getPieceColor());
+		return (Pawn) PieceCache.get(PieceType.PAWN, this.pieceColor, move.getDestinationCoordinate(), true);
 	}
 	
 	@Override
@@ -61,89 +77,54 @@ public class Pawn extends Piece {
 	@Override
 	public Collection<Move> calculateLegalMoves(final Board board) {
 		final List<Move> legalMoves = new ArrayList<>();
-		int possibleDestination;
-		for (final int currentOffset : POSSIBLE_MOVE_OFFSETS) {
-			possibleDestination = this.piecePosition + 
-					(this.pieceColor.getDirection() * currentOffset);
-			if (!BoardUtils.isValidTileCoordinate(possibleDestination)) {
-				continue;
-			}
-			if (currentOffset == 8 && !board.getTile(possibleDestination).isTileOccupied()) {
-				if (this.pieceColor.isPawnPromotionSquare(possibleDestination)) {
-					legalMoves.add(new PawnPromotion(new PawnMove(board, this, possibleDestination)));
+		final int color = this.pieceColor.ordinal();
+		final long legalDestinations = board.getLegalDestinations(this);
+		final int pushDestination = JumpTables.pawnPushDestination(color, this.piecePosition);
+		if (pushDestination != JumpTables.NO_SQUARE && !board.isTileOccupied(pushDestination)) {
+			if ((legalDestinations & BoardUtils.squareMask(pushDestination)) != 0) {
+				if (this.pieceColor.isPawnPromotionSquare(pushDestination)) {
+					addPromotions(legalMoves, new PawnMove(board, this, pushDestination));
 				} else {
-					legalMoves.add(new PawnMove(board, this, possibleDestination));
+					legalMoves.add(new PawnMove(board, this, pushDestination));
 				}
-			} else if (currentOffset == 16 && this.isFirstMove() && 
-					((BoardUtils.SECOND_ROW[this.piecePosition] && this.pieceColor.isBlack()) ||
-					(BoardUtils.SEVENTH_ROW[this.piecePosition] && this.pieceColor.isWhite()))) {
-				final int behindPossibleDestination = this.piecePosition + 
-						(this.pieceColor.getDirection() * 8);
-				if (!board.getTile(behindPossibleDestination).isTileOccupied() &&
-						!board.getTile(possibleDestination).isTileOccupied()) {
-					legalMoves.add(new PawnJump(board, this, possibleDestination));
-				}
-			} else if (currentOffset == 7 && 
-					!((BoardUtils.FIRST_COLUMN[this.piecePosition] && this.pieceColor.isBlack()) ||
-					 (BoardUtils.EIGHTH_COLUMN[this.piecePosition] && this.pieceColor.isWhite()))) {
-				if (board.getTile(possibleDestination).isTileOccupied()) {
-					final Piece pieceAtDestination = board.getTile(possibleDestination).getPiece();
-					if (this.pieceColor != pieceAtDestination.getPieceColor()) {
-						if (this.pieceColor.isPawnPromotionSquare(possibleDestination)) {
-							legalMoves.add(new PawnPromotion(new PawnAttackMove(board,this,
-									possibleDestination, pieceAtDestination)));
-						} else {
-							legalMoves.add(new PawnAttackMove(board, this, possibleDestination,
-									pieceAtDestination));
-						}
-					}
-				} else if (board.getEnPassantPawn() != null) {
-					if (board.getEnPassantPawn().getPiecePosition() == (this.piecePosition +
-							(this.pieceColor.getOppositeDirection()))) {
-						final Piece pieceAtDestination = board.getEnPassantPawn();
-						if (this.pieceColor != pieceAtDestination.getPieceColor()) {
-							if (this.pieceColor.isPawnPromotionSquare(possibleDestination)) {
-								legalMoves.add(new PawnPromotion(new PawnEnPassantAttackMove(board,
-										this, possibleDestination, pieceAtDestination)));
-							} else {
-								legalMoves.add(new PawnEnPassantAttackMove(board, this, 
-										possibleDestination, pieceAtDestination));
-							}
-						}
+			}
+			final int jumpDestination = JumpTables.pawnJumpDestination(color, this.piecePosition);
+			if (this.isFirstMove() && jumpDestination != JumpTables.NO_SQUARE &&
+					!board.isTileOccupied(jumpDestination) &&
+					(legalDestinations & BoardUtils.squareMask(jumpDestination)) != 0) {
+				legalMoves.add(new PawnJump(board, this, jumpDestination));
+			}
+		}
+		final Pawn enPassantPawn = board.getEnPassantPawn();
+		for (final int attackDestination : JumpTables.pawnAttackDestinations(color, this.piecePosition)) {
+			final Piece pieceAtDestination = board.getPiece(attackDestination);
+			if (pieceAtDestination != null) {
+				if (this.pieceColor != pieceAtDestination.getPieceColor() &&
+						(legalDestinations & BoardUtils.squareMask(attackDestination)) != 0) {
+					if (this.pieceColor.isPawnPromotionSquare(attackDestination)) {
+						addPromotions(legalMoves, new PawnAttackMove(board, this,
+								attackDestination, pieceAtDestination));
+					} else {
+						legalMoves.add(new PawnAttackMove(board, this, attackDestination,
+								pieceAtDestination));
 					}
 				}
-			} else if (currentOffset == 9 &&
-					!((BoardUtils.FIRST_COLUMN[this.piecePosition] && this.pieceColor.isWhite()) ||
-					 (BoardUtils.EIGHTH_COLUMN[this.piecePosition] && this.pieceColor.isBlack()))) {
-				if (board.getTile(possibleDestination).isTileOccupied()) {
-					final Piece pieceAtDestination = board.getTile(possibleDestination).getPiece();
-					if (this.pieceColor != pieceAtDestination.getPieceColor()) {
-						if (this.pieceColor.isPawnPromotionSquare(possibleDestination)) {
-							legalMoves.add(new PawnPromotion(new PawnAttackMove(board, this,
-									possibleDestination, pieceAtDestination)));
-						} else {
-							legalMoves.add(new PawnAttackMove(board, this, possibleDestination,
-									pieceAtDestination));
-						}
-					}
-				} else if (board.getEnPassantPawn() != null) {
-					if (board.getEnPassantPawn().getPiecePosition() == (this.piecePosition -
-							(this.pieceColor.getOppositeDirection()))) {
-						final Piece pieceAtDestination = board.getEnPassantPawn();
-						if (this.pieceColor != pieceAtDestination.getPieceColor()) {
-							if (this.pieceColor.isPawnPromotionSquare(possibleDestination)) {
-								legalMoves.add(new PawnPromotion(new PawnEnPassantAttackMove(board,
-										this, possibleDestination, pieceAtDestination)));
-							} else {
-								legalMoves.add(new PawnEnPassantAttackMove(board, this,
-										possibleDestination, pieceAtDestination));
-							}
-						}
-					}
+			} else if (enPassantPawn != null && this.pieceColor != enPassantPawn.getPieceColor() &&
+					enPassantPawn.getPiecePosition() == attackDestination -
+					(this.pieceColor.getDirection() * BoardUtils.NUM_TILES_PER_ROW)) {
+				final Move enPassantMove = new PawnEnPassantAttackMove(board, this, attackDestination, enPassantPawn);
+				if (!board.leavesKingInCheck(enPassantMove)) {
+					legalMoves.add(enPassantMove);
 				}
 			}
 		}
 		return ImmutableList.copyOf(legalMoves);
 	}
+	
+	private static void addPromotions(final List<Move> legalMoves, final Move pawnMove) {
+		for (final PieceType promotionType : PROMOTION_TYPES) {
+			legalMoves.add(new PawnPromotion(pawnMove, promotionType));
+		}
+	}
 
 }
@@ -7,6 +7,9 @@ import java.util.Collection;
 
 import com.chess.engine.board.Board;
 import com.chess.engine.board.Move;
+import com.chess.engine.board.Move.MajorAttackMove;
+import com.chess.engine.board.Move.MajorMove;
+import com.google.common.collect.ImmutableList;
 
 
 public abstract class Piece {
@@ -73,6 +76,22 @@ public abstract class Piece {
 		return result;
 	}
 	
+	protected Collection<Move> calculateMajorMoves(final Board board, final long destinations) {
+		final ImmutableList.Builder<Move> legalMoves = ImmutableList.builder();
+		long remaining = destinations & ~board.getOccupancy(this.pieceColor) & board.getLegalDestinations(this);
+		while (remaining != 0) {
+			final int possibleDestination = Long.numberOfTrailingZeros(remaining);
+			final Piece pieceAtDestination = board.getPiece(possibleDestination);
+			if (pieceAtDestination == null) {
+				legalMoves.add(new MajorMove(board, this, possibleDestination));
+			} else {
+				legalMoves.add(new MajorAttackMove(board, this, possibleDestination, pieceAtDestination));
+			}
+			remaining &= remaining - 1;
+		}
+		return legalMoves.build();
+	}
+	
 	public abstract Collection<Move> calculateLegalMoves(final Board board);
 	public abstract Piece movePiece(Move move);
 	public abstract int locationBonus();
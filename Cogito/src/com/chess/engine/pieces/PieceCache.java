@@ -0,0 +1,81 @@
+package com.chess.engine.pieces;
+
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.pieces.Piece.PieceType;
+
+/**
+ * Every piece that can exist, built once: each colour and type on each
+ * square with its first-move flag, and for kings every combination of the
+ * castled and castle-capable flags too. Moving or promoting a piece is a
+ * table lookup, and pieces from the table can be compared by identity.
+ */
+public final class PieceCache {
+	private static final int FLAG_COMBINATIONS = 16;
+	private static final int FIRST_MOVE = 1;
+	private static final int CASTLED = 2;
+	private static final int KING_SIDE_CAPABLE = 4;
+	private static final int QUEEN_SIDE_CAPABLE = 8;
+	public static final int NUM_SLOTS = BoardUtils.NUM_PIECE_INDEXES * BoardUtils.NUM_TILES * FLAG_COMBINATIONS;
+	private static final Piece[] PIECES = createAllPieces();
+
+	private PieceCache() {
+		throw new RuntimeException("Cannot instantiate PieceCache");
+	}
+
+	private static Piece[] createAllPieces() {
+		final Piece[] pieces = new Piece[NUM_SLOTS];
+		for (final Color color : Color.values()) {
+			for (int square = 0; square < BoardUtils.NUM_TILES; square++) {
+				for (final boolean isFirstMove : new boolean[] { false, true }) {
+					final int flags = isFirstMove ? FIRST_MOVE : 0;
+					pieces[slot(color, PieceType.PAWN, square, flags)] = new Pawn(square, color, isFirstMove);
+					pieces[slot(color, PieceType.KNIGHT, square, flags)] = new Knight(square, color, isFirstMove);
+					pieces[slot(color, PieceType.BISHOP, square, flags)] = new Bishop(square, color, isFirstMove);
+					pieces[slot(color, PieceType.ROOK, square, flags)] = new Rook(square, color, isFirstMove);
+					pieces[slot(color, PieceType.QUEEN, square, flags)] = new Queen(square, color, isFirstMove);
+				}
+				for (int flags = 0; flags < FLAG_COMBINATIONS; flags++) {
+					pieces[slot(color, PieceType.KING, square, flags)] = new King(square, color,
+							(flags & FIRST_MOVE) != 0, (flags & CASTLED) != 0,
+							(flags & KING_SIDE_CAPABLE) != 0, (flags & QUEEN_SIDE_CAPABLE) != 0);
+				}
+			}
+		}
+		return pieces;
+	}
+
+	public static Piece get(final PieceType pieceType, final Color color,
+							final int piecePosition, final boolean isFirstMove) {
+		return PIECES[slot(color, pieceType, piecePosition, isFirstMove ? FIRST_MOVE : 0)];
+	}
+
+	public static King getKing(final Color color, final int piecePosition, final boolean isFirstMove,
+							   final boolean isCastled, final boolean kingSideCastleCapable,
+							   final boolean queenSideCastleCapable) {
+		return (King) PIECES[slot(color, PieceType.KING, piecePosition,
+				(isFirstMove ? FIRST_MOVE : 0) | (isCastled ? CASTLED : 0) |
+				(kingSideCastleCapable ? KING_SIDE_CAPABLE : 0) |
+				(queenSideCastleCapable ? QUEEN_SIDE_CAPABLE : 0))];
+	}
+
+	/** The table slot of the cached piece equal to the given one. */
+	public static int slotOf(final Piece piece) {
+		int flags = piece.isFirstMove() ? FIRST_MOVE : 0;
+		if (piece.getPieceType().isKing()) {
+			final King king = (King) piece;
+			flags |= (king.isCastled() ? CASTLED : 0) |
+					 (king.isKingSideCastleCapable() ? KING_SIDE_CAPABLE : 0) |
+					 (king.isQueenSideCastleCapable() ? QUEEN_SIDE_CAPABLE : 0);
+		}
+		return slot(piece.getPieceColor(), piece.getPieceType(), piece.getPiecePosition(), flags);
+	}
+
+	public static Piece getPiece(final int slot) {
+		return PIECES[slot];
+	}
+
+	private static int slot(final Color color, final PieceType pieceType, final int square, final int flags) {
+		return (BoardUtils.pieceIndex(color, pieceType) * BoardUtils.NUM_TILES + square) * FLAG_COMBINATIONS + flags;
+	}
+
+}
@@ -3,21 +3,14 @@
  */
 package com.chess.engine.pieces;
 
-import java.util.ArrayList;
 import java.util.Collection;
-import java.util.List;
 
+import com.chess.engine.board.Attacks;
 import com.chess.engine.board.Board;
-import com.chess.engine.board.BoardUtils;
 import com.chess.engine.board.Move;
-import com.chess.engine.board.Move.MajorMove;
-import com.chess.engine.board.Move.MajorAttackMove;
-import com.chess.engine.board.Tile;
-import com.google.common.collect.ImmutableList;
 
 
 public class Queen extends Piece {
-	private static final int[] POSSIBLE_MOVE_OFFSETS = { -9, -8, -7, -1, 1, 7, 8, 9 };
 
 	public Queen(final int piecePosition, final Color pieceColor) {
 		super(PieceType.QUEEN, piecePosition, pieceColor, true);
@@ -39,7 +32,7 @@ public class Queen extends Piece {
 	
 	@Override
 	public Queen movePiece(Move move) {
-		return new Queen(move.getDestinationCoordinate(), move.getMovedPiece().getPieceColor());
+		return (Queen) PieceCache.get(PieceType.QUEEN, this.pieceColor, move.getDestinationCoordinate(), true);
 	}
 	
 	@Override
@@ -54,45 +47,7 @@ public class Queen extends Piece {
 
 	@Override
 	public Collection<Move> calculateLegalMoves(final Board board) {
-		final List<Move> legalMoves = new ArrayList<>();
-		int possibleDestination;
-		for (final int currentOffset : POSSIBLE_MOVE_OFFSETS) {
-			possibleDestination = this.piecePosition;
-			while (BoardUtils.isValidTileCoordinate(possibleDestination)) {
-				if (isFirstColumnExclusion(possibleDestination, currentOffset) ||
-						isEighthColumnExclusion(possibleDestination, currentOffset)) {
-					break;
-				}
-				possibleDestination += currentOffset;
-				if (BoardUtils.isValidTileCoordinate(possibleDestination)) {
-					final Tile possibleDestinationTile = board.getTile(possibleDestination);
-					
-					if (!possibleDestinationTile.isTileOccupied()) {
-						legalMoves.add(new MajorMove(board, this, possibleDestination));
-					} else {
-						final Piece pieceAtDestination = possibleDestinationTile.getPiece();
-						final Color pieceColor = pieceAtDestination.getPieceColor();
-						
-						if (this.pieceColor != pieceColor) {
-							legalMoves.add(new MajorAttackMove(board, this, possibleDestination, 
-									pieceAtDestination));
-						}
-						break;
-					}
-				}
-			}
-		}
-		return ImmutableList.copyOf(legalMoves);
-	}
-	
-	private static boolean isFirstColumnExclusion(final int currentPosition, final int candidateOffset) {
-		return BoardUtils.FIRST_COLUMN[currentPosition] && (candidateOffset == -9 || 
-				candidateOffset == -1 || candidateOffset == 7);
-	}
-	
-	private static boolean isEighthColumnExclusion(final int currentPosition, final int candidateOffset) {
-		return BoardUtils.EIGHTH_COLUMN[currentPosition] && (candidateOffset == -7 || 
-				candidateOffset == 1 || candidateOffset == 9);
+		return calculateMajorMoves(board, Attacks.queenAttacks(this.piecePosition, board.getAllOccupancy()));
 	}
 
 }
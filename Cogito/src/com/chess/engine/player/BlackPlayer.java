@@ -11,7 +11,6 @@ import com.chess.engine.board.Board;
 import com.chess.engine.board.Move;
 import com.chess.engine.board.Move.KingSideCastleMove;
 import com.chess.engine.board.Move.QueenSideCastleMove;
-import com.chess.engine.board.Tile;
 import com.chess.engine.pieces.Color;
 import com.chess.engine.pieces.Piece;
 import com.chess.engine.pieces.Rook;
@@ -20,9 +19,8 @@ import com.google.common.collect.ImmutableList;
 
 public final class BlackPlayer extends Player {
 
-	public BlackPlayer(final Board board, final Collection<Move> whiteStandardLegalMoves,
-					   final Collection<Move> blackStandardLegalMoves) {
-		super(board, blackStandardLegalMoves, whiteStandardLegalMoves);
+	public BlackPlayer(final Board board) {
+		super(board);
 	}
 
 	@Override
@@ -46,36 +44,35 @@ public final class BlackPlayer extends Player {
 	}
 
 	@Override
-	protected Collection<Move> calculateKingCastles(final Collection<Move> playerLegals,
-													final Collection<Move> opponentLegals) {
+	protected Collection<Move> calculateKingCastles() {
 		final List<Move> kingCastles = new ArrayList<>();
-		if (this.playerKing.isFirstMove() && !this.isInCheck()) {
+		if (getPlayerKing().isFirstMove() && !this.isInCheck()) {
 			// black's king side castle
-			if (!this.board.getTile(5).isTileOccupied() &&
-				!this.board.getTile(6).isTileOccupied()) {
-				final Tile rookTile = this.board.getTile(7);
-				if (rookTile.isTileOccupied() && rookTile.getPiece().isFirstMove()) {
-					if (Player.calculateAttacksOnTile(5, opponentLegals).isEmpty() &&
-						Player.calculateAttacksOnTile(6, opponentLegals).isEmpty() &&
-						rookTile.getPiece().getPieceType().isRook()) {
+			if (!this.board.isTileOccupied(5) &&
+				!this.board.isTileOccupied(6)) {
+				final Piece rookPiece = this.board.getPiece(7);
+				if (rookPiece != null && rookPiece.isFirstMove()) {
+					if (!this.board.isSquareAttacked(5, Color.WHITE) &&
+						!this.board.isSquareAttacked(6, Color.WHITE) &&
+						rookPiece.getPieceType().isRook()) {
 						kingCastles.add(new KingSideCastleMove(this.board,
-								this.playerKing, 6, (Rook) rookTile.getPiece(),
-								rookTile.getTileCoordinate(), 5));
+								getPlayerKing(), 6, (Rook) rookPiece,
+								rookPiece.getPiecePosition(), 5));
 					}
 				}
 			}
 			// black's queen side castle
-			if (!this.board.getTile(1).isTileOccupied() &&
-				!this.board.getTile(2).isTileOccupied() &&
-				!this.board.getTile(3).isTileOccupied()) {
-				final Tile rookTile = this.board.getTile(0);
-				if (rookTile.isTileOccupied() && rookTile.getPiece().isFirstMove()) {
-					if (Player.calculateAttacksOnTile(2, opponentLegals).isEmpty() &&
-						Player.calculateAttacksOnTile(3, opponentLegals).isEmpty() &&
-						rookTile.getPiece().getPieceType().isRook()) {
+			if (!this.board.isTileOccupied(1) &&
+				!this.board.isTileOccupied(2) &&
+				!this.board.isTileOccupied(3)) {
+				final Piece rookPiece = this.board.getPiece(0);
+				if (rookPiece != null && rookPiece.isFirstMove()) {
+					if (!this.board.isSquareAttacked(2, Color.WHITE) &&
+						!this.board.isSquareAttacked(3, Color.WHITE) &&
+						rookPiece.getPieceType().isRook()) {
 						kingCastles.add(new QueenSideCastleMove(this.board,
-								this.playerKing, 2, (Rook) rookTile.getPiece(),
-								rookTile.getTileCoordinate(), 3));
+								getPlayerKing(), 2, (Rook) rookPiece,
+								rookPiece.getPiecePosition(), 3));
 					}
 				}
 			}
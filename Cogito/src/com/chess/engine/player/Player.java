@@ -3,17 +3,19 @@
  */
 package com.chess.engine.player;
 
-import java.util.ArrayList;
 import java.util.Collection;
-import java.util.List;
 
 import com.chess.engine.board.Board;
+import com.chess.engine.board.BoardUtils;
 import com.chess.engine.board.Move;
+import com.chess.engine.board.MoveIndex;
+import com.chess.engine.board.MoveGenerationStats;
 import com.chess.engine.board.MoveStatus;
 import com.chess.engine.board.MoveTransition;
 import com.chess.engine.pieces.Color;
 import com.chess.engine.pieces.King;
 import com.chess.engine.pieces.Piece;
+import com.chess.engine.pieces.Piece.PieceType;
 import com.chess.engine.player.ai.MoveStrategy;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterables;
@@ -21,86 +23,111 @@ import com.google.common.collect.Iterables;
 
 public abstract class Player {
 	protected final Board board;
-	protected final King playerKing;
-	protected final Collection<Move> legalMoves;
-	private final boolean isInCheck;
+	private King playerKing;
+	private Collection<Move> legalMoves;
+	private MoveIndex legalMoveIndex;
+	private Boolean isInCheck;
+	private GameStatus gameStatus;
 	private MoveStrategy strategy;
 	
-	Player(final Board board, final Collection<Move> playerLegalMoves,
-		   final Collection<Move> opponentLegalMoves) {
+	Player(final Board board) {
 		this.board = board;
-		this.playerKing = establishKing();
-		this.legalMoves = ImmutableList.copyOf(
-				Iterables.concat(playerLegalMoves,
-				calculateKingCastles(playerLegalMoves, opponentLegalMoves)));
-		this.isInCheck = !Player.calculateAttacksOnTile(
-				this.getPlayerKing().getPiecePosition(), opponentLegalMoves).isEmpty();
 	}
 	
 	public King getPlayerKing() {
-		return this.playerKing;
+		King king = this.playerKing;
+		if (king == null) {
+			king = establishKing();
+			this.playerKing = king;
+		}
+		return king;
 	}
 	
 	public boolean isInCheck() {
-		return this.isInCheck;
+		Boolean inCheck = this.isInCheck;
+		if (inCheck == null) {
+			inCheck = this.board.isSquareAttacked(getPlayerKing().getPiecePosition(),
+					getOpponent().getColor());
+			MoveGenerationStats.checkTestCalculated();
+			this.isInCheck = inCheck;
+		}
+		return inCheck;
 	}
 	
 	public boolean isInCheckMate() {
-		return this.isInCheck && !hasEscapeMoves();
+		return getGameStatus() == GameStatus.CHECKMATE;
 	}
 	
 	public boolean isInStaleMate() {
-		return !this.isInCheck && !hasEscapeMoves();
+		return getGameStatus() == GameStatus.STALEMATE;
 	}
 	
-	protected boolean hasEscapeMoves() {
-		for (final Move move : getLegalMoves()) {
-			final MoveTransition transition = makeMove(move);
-			if (transition.getMoveStatus().isDone()) {
-				return true;
+	/** Check, checkmate or stalemate of this side, worked out once per board. */
+	public GameStatus getGameStatus() {
+		GameStatus status = this.gameStatus;
+		if (status == null) {
+			if (hasEscapeMoves()) {
+				status = isInCheck() ? GameStatus.CHECK : GameStatus.IN_PLAY;
+			} else {
+				status = isInCheck() ? GameStatus.CHECKMATE : GameStatus.STALEMATE;
 			}
+			this.gameStatus = status;
 		}
-		return false;
+		return status;
+	}
+	
+	protected boolean hasEscapeMoves() {
+		return !getLegalMoves().isEmpty();
 	}
 	
 	public boolean isCastled() {
-		return this.playerKing.isCastled();
+		return getPlayerKing().isCastled();
 	}
 	
 	public boolean isKingSideCastleCapable() {
-		return this.playerKing.isKingSideCastleCapable();
+		return getPlayerKing().isKingSideCastleCapable();
 	}
 	
 	public boolean isQueenSideCastleCapable() {
-		return this.playerKing.isQueenSideCastleCapable();
-	}
-
-	public static Collection<Move> calculateAttacksOnTile(final int piecePosition,
-														  final Collection<Move> opponentMoves) {
-		final List<Move> attackMoves = new ArrayList<>();
-		for (final Move move : opponentMoves) {
-			if (piecePosition == move.getDestinationCoordinate()) {
-				attackMoves.add(move);
-			}
-		}
-		return ImmutableList.copyOf(attackMoves);
+		return getPlayerKing().isQueenSideCastleCapable();
 	}
 
 	private King establishKing() {
-		for (final Piece piece : getActivePieces()) {
-			if (piece.getPieceType().isKing()) {
-				return (King) piece;
-			}
+		final int kingSquare = this.board.getKingSquare(getColor());
+		if (kingSquare < BoardUtils.NUM_TILES) {
+			return (King) this.board.getPiece(kingSquare);
 		}
 		throw new RuntimeException("Not a valid board! " + this.getColor() + " king could not be est!");
 	}
 	
 	public Collection<Move> getLegalMoves() {
-		return this.legalMoves;
+		Collection<Move> moves = this.legalMoves;
+		if (moves == null) {
+			moves = ImmutableList.copyOf(Iterables.concat(this.board.getStandardLegalMoves(getColor()),
+					calculateKingCastles()));
+			MoveGenerationStats.castleListGenerated();
+			this.legalMoves = moves;
+		}
+		return moves;
 	}
 	
 	public boolean isMoveLegal(final Move move) {
-		return !(move.isCastlingMove() && isInCheck()) && this.legalMoves.contains(move);
+		return !(move.isCastlingMove() && isInCheck()) && getLegalMoveIndex().get(move) != null;
+	}
+	
+	/** The legal move between two squares, a queen promotion if it promotes, or {@link Move#NULL_MOVE}. */
+	public Move getLegalMove(final int currentCoordinate, final int destinationCoordinate) {
+		final Move move = getLegalMoveIndex().get(currentCoordinate, destinationCoordinate);
+		return move != null ? move : Move.NULL_MOVE;
+	}
+	
+	private MoveIndex getLegalMoveIndex() {
+		MoveIndex index = this.legalMoveIndex;
+		if (index == null) {
+			index = new MoveIndex(getLegalMoves());
+			this.legalMoveIndex = index;
+		}
+		return index;
 	}
 	
 	public MoveStrategy getMoveStrategy() {
@@ -116,12 +143,7 @@ public abstract class Player {
 			return new MoveTransition(this.board, move, MoveStatus.ILLEGAL_MOVE);
 		}
 		final Board transitionBoard = move.execute();
-		final Collection<Move> kingAttacks = Player.calculateAttacksOnTile(
-				transitionBoard.currentPlayer().getOpponent().getPlayerKing().getPiecePosition(),
-				transitionBoard.currentPlayer().getLegalMoves());
-		if (!kingAttacks.isEmpty()) {
-			return new MoveTransition(this.board, move, MoveStatus.LEAVES_PLAYER_IN_CHECK);
-		}
+		assert !transitionBoard.currentPlayer().getOpponent().isInCheck() : "Generated move leaves king in check";
 		return new MoveTransition(transitionBoard, move, MoveStatus.DONE);
 	}
 	
@@ -135,10 +157,13 @@ public abstract class Player {
 				"\nisCastled = " + isCastled()) + "\n";
 	}
 
+	public Collection<Piece> getActivePieces(final PieceType pieceType) {
+		return this.board.getPieces(getColor(), pieceType);
+	}
+
 	public abstract Collection<Piece> getActivePieces();
 	public abstract Color getColor();
 	public abstract Player getOpponent();
-	protected abstract Collection<Move> calculateKingCastles(
-			Collection<Move> playerLegals, Collection<Move> opponentLegals);
+	protected abstract Collection<Move> calculateKingCastles();
 
 }
@@ -11,7 +11,6 @@ import com.chess.engine.board.Board;
 import com.chess.engine.board.Move;
 import com.chess.engine.board.Move.KingSideCastleMove;
 import com.chess.engine.board.Move.QueenSideCastleMove;
-import com.chess.engine.board.Tile;
 import com.chess.engine.pieces.Color;
 import com.chess.engine.pieces.Piece;
 import com.chess.engine.pieces.Rook;
@@ -20,9 +19,8 @@ import com.google.common.collect.ImmutableList;
 
 public final class WhitePlayer extends Player {
 
-	public WhitePlayer(final Board board, final Collection<Move> whiteStandardLegalMoves,
-					   final Collection<Move> blackStandardLegalMoves) {
-		super(board, whiteStandardLegalMoves, blackStandardLegalMoves);
+	public WhitePlayer(final Board board) {
+		super(board);
 	}
 
 	@Override
@@ -46,36 +44,35 @@ public final class WhitePlayer extends Player {
 	}
 
 	@Override
-	protected Collection<Move> calculateKingCastles(final Collection<Move> playerLegals,
-													final Collection<Move> opponentLegals) {
+	protected Collection<Move> calculateKingCastles() {
 		final List<Move> kingCastles = new ArrayList<>();
-		if (this.playerKing.isFirstMove() && !this.isInCheck()) {
+		if (getPlayerKing().isFirstMove() && !this.isInCheck()) {
 			// white's king side castle
-			if (!this.board.getTile(61).isTileOccupied() &&
-				!this.board.getTile(62).isTileOccupied()) {
-				final Tile rookTile = this.board.getTile(63);
-				if (rookTile.isTileOccupied() && rookTile.getPiece().isFirstMove()) {
-					if (Player.calculateAttacksOnTile(61, opponentLegals).isEmpty() &&
-						Player.calculateAttacksOnTile(62, opponentLegals).isEmpty() &&
-						rookTile.getPiece().getPieceType().isRook()) {
+			if (!this.board.isTileOccupied(61) &&
+				!this.board.isTileOccupied(62)) {
+				final Piece rookPiece = this.board.getPiece(63);
+				if (rookPiece != null && rookPiece.isFirstMove()) {
+					if (!this.board.isSquareAttacked(61, Color.BLACK) &&
+						!this.board.isSquareAttacked(62, Color.BLACK) &&
+						rookPiece.getPieceType().isRook()) {
 						kingCastles.add(new KingSideCastleMove(this.board,
-								this.playerKing, 62, (Rook) rookTile.getPiece(), 
-								rookTile.getTileCoordinate(), 61));
+								getPlayerKing(), 62, (Rook) rookPiece, 
+								rookPiece.getPiecePosition(), 61));
 					}
 				}
 			}
 			// white's queen side castle
-			if (!this.board.getTile(57).isTileOccupied() &&
-				!this.board.getTile(58).isTileOccupied() &&
-				!this.board.getTile(59).isTileOccupied()) {
-				final Tile rookTile = this.board.getTile(56);
-				if (rookTile.isTileOccupied() && rookTile.getPiece().isFirstMove()) {
-					if (Player.calculateAttacksOnTile(58, opponentLegals).isEmpty() &&
-						Player.calculateAttacksOnTile(59, opponentLegals).isEmpty() &&
-						rookTile.getPiece().getPieceType().isRook()) {
+			if (!this.board.isTileOccupied(57) &&
+				!this.board.isTileOccupied(58) &&
+				!this.board.isTileOccupied(59)) {
+				final Piece rookPiece = this.board.getPiece(56);
+				if (rookPiece != null && rookPiece.isFirstMove()) {
+					if (!this.board.isSquareAttacked(58, Color.BLACK) &&
+						!this.board.isSquareAttacked(59, Color.BLACK) &&
+						rookPiece.getPieceType().isRook()) {
 						kingCastles.add(new QueenSideCastleMove(this.board,
-								this.playerKing, 58, (Rook)rookTile.getPiece(),
-								rookTile.getTileCoordinate(), 59));
+								getPlayerKing(), 58, (Rook) rookPiece,
+								rookPiece.getPiecePosition(), 59));
 					}
 				}
 			}
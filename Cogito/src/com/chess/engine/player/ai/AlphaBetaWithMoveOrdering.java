@@ -1,55 +1,72 @@
 package com.chess.engine.player.ai;
 
-import java.util.Collection;
-import java.util.Comparator;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Observable;
 
 import com.chess.engine.board.Board;
-import com.chess.engine.board.BoardUtils;
 import com.chess.engine.board.Move;
+import com.chess.engine.board.MoveEncoding;
+import com.chess.engine.board.MoveGenerationStats;
 import com.chess.engine.board.MoveTransition;
+import com.chess.engine.board.SearchBoard;
 import com.chess.engine.pieces.Color;
-import com.chess.engine.player.Player;
-import com.google.common.collect.ComparisonChain;
-import com.google.common.collect.Ordering;
+import com.chess.engine.player.ai.SearchClock.SearchTimeoutException;
 
 public class AlphaBetaWithMoveOrdering extends Observable implements MoveStrategy {
+	private static final int DEFAULT_TABLE_SIZE_MB = 32;
+	private static final int INFINITY = Integer.MAX_VALUE - 1;
+	private static final int MAX_PV_PLY = 128;
+	private static final int NULL_MOVE_MIN_DEPTH = 3;
+	private static final int NULL_MOVE_REDUCTION = 2;
+	private static final int NULL_MOVE_DEEP_REDUCTION = 3;
+	private static final int NULL_MOVE_DEEP_DEPTH = 6;
+	private static final int LATE_MOVE_MIN_DEPTH = 3;
+	private static final int LATE_MOVE_MIN_MOVES = 3;
+	private static final int LATE_MOVE_DEEP_MOVES = 12;
 	private final BoardEvaluator evaluator;
-	private final MoveSorter moveSorter;
+	private final MoveHistory moveHistory;
+	private final MovePicker[] movePickers;
 	private final int quiescenceFactor;
+	private final TranspositionTable transpositionTable;
+	private SearchClock clock;
+	private Color rootColor;
+	private final int[][] pvTable;
+	private final int[] pvLength;
+	private List<Move> principalVariation;
 	private long boardsEvaluated;
 	private long executionTime;
 	private int quiescenceCount;
 	private int cutOffsProduced;
+	private int firstMoveCutOffs;
+	private long tableProbes;
+	private long tableHits;
+	private long tableCutOffs;
+	private boolean nullMovePruning;
+	private boolean lateMoveReductions;
+	private long nullMoveTries;
+	private long nullMoveCutOffs;
+	private long lateMovesReduced;
+	private long lateMoveReSearches;
+	private long losingCapturesSkipped;
 	
-	private enum MoveSorter {
-		
-		SORT {
-			@Override
-			Collection<Move> sort(final Collection<Move> moves) {
-				return Ordering.from(ATTACKS_SORT).immutableSortedCopy(moves);
-			}
-		};
-		
-		public static Comparator<Move> ATTACKS_SORT = new Comparator<Move>() {
-			@Override
-			public int compare(final Move move1, final Move move2) {
-				return ComparisonChain.start()
-						.compare(move2.isAttack(), move1.isAttack())
-						.compare(move1.getMovedPiece().getPieceValue(), move2.getMovedPiece().getPieceValue())
-						.compare(move2.isCastlingMove(), move1.isCastlingMove())
-						.result();
-			}
-		};
-		
-		abstract Collection<Move> sort(Collection<Move> moves);
+	public AlphaBetaWithMoveOrdering(final int quiescenceFactor) {
+		this(quiescenceFactor, new TranspositionTable(DEFAULT_TABLE_SIZE_MB));
 	}
 	
-	public AlphaBetaWithMoveOrdering(final int quiescenceFactor) {
+	public AlphaBetaWithMoveOrdering(final int quiescenceFactor, final TranspositionTable transpositionTable) {
 		this.evaluator = new StandardBoardEvaluator();
 		this.quiescenceFactor = quiescenceFactor;
-		this.moveSorter = MoveSorter.SORT;
+		this.moveHistory = new MoveHistory();
+		this.movePickers = new MovePicker[SearchBoard.MAX_PLY];
+		this.transpositionTable = transpositionTable;
+		this.clock = new SearchClock(SearchLimits.depth(1));
+		this.pvTable = new int[MAX_PV_PLY][MAX_PV_PLY];
+		this.pvLength = new int[MAX_PV_PLY];
+		this.principalVariation = Collections.emptyList();
+		this.nullMovePruning = true;
+		this.lateMoveReductions = true;
 		this.boardsEvaluated = 0;
 		this.quiescenceCount = 0;
 		this.cutOffsProduced = 0;
@@ -65,42 +82,89 @@ public class AlphaBetaWithMoveOrdering extends Observable implements MoveStrateg
 		return this.boardsEvaluated;
 	}
 
+	public void setNullMovePruning(final boolean nullMovePruning) {
+		this.nullMovePruning = nullMovePruning;
+	}
+	
+	public void setLateMoveReductions(final boolean lateMoveReductions) {
+		this.lateMoveReductions = lateMoveReductions;
+	}
+	
+	/** The best line found by the last completed iteration, starting with the chosen move. */
+	public List<Move> getPrincipalVariation() {
+		return this.principalVariation;
+	}
+	
 	@Override
 	public Move execute(final Board board, final int depth) {
+		return execute(board, SearchLimits.depth(depth));
+	}
+	
+	@Override
+	public Move execute(final Board board, final SearchLimits limits) {
+		this.clock = new SearchClock(limits);
+		this.transpositionTable.newSearch();
+		this.moveHistory.newSearch();
+		this.principalVariation = Collections.emptyList();
+		Move bestMove = Move.NULL_MOVE;
+		for (int depth = limits.isTimed() ? 1 : limits.getMaxDepth(); depth <= limits.getMaxDepth(); depth++) {
+			if (bestMove != Move.NULL_MOVE && this.clock.isSoftLimitReached()) {
+				break;
+			}
+			try {
+				bestMove = searchRoot(board, depth, bestMove);
+				setChanged();
+				notifyObservers(bestMove);
+			} catch (final SearchTimeoutException e) {
+				System.out.println("\t" + toString() + " abandoned depth " + depth + " after " +
+						this.clock.getElapsedMillis() + " ms (" + limits + ")");
+				break;
+			}
+		}
+		if (bestMove == Move.NULL_MOVE && !board.currentPlayer().getLegalMoves().isEmpty()) {
+			bestMove = MoveOrdering.get().orderMoves(board).get(0);
+		}
+		return bestMove;
+	}
+	
+	private Move searchRoot(final Board board, final int depth, final Move previousBestMove) {
 		final long startTime = System.currentTimeMillis();
-		final Player currentPlayer = board.currentPlayer();
-		final Color color = currentPlayer.getColor();
+		final SearchBoard searchBoard = new SearchBoard(board);
+		this.rootColor = board.currentPlayer().getColor();
+		this.pvLength[0] = 0;
+		resetStatistics();
 		Move bestMove = Move.NULL_MOVE;
-		int highestSeenValue = Integer.MIN_VALUE;
-		int lowestSeenValue = Integer.MAX_VALUE;
-		int currentValue;
+		int alpha = -INFINITY;
 		int moveCounter = 1;
-		final List<Move> orderedMoves = MoveOrdering.get().orderMoves(board);
+		final List<Move> orderedMoves = new ArrayList<>(MoveOrdering.get().orderMoves(board));
+		if (previousBestMove != Move.NULL_MOVE && orderedMoves.remove(previousBestMove)) {
+			orderedMoves.add(0, previousBestMove);
+		}
 		int numMoves = orderedMoves.size();
 		System.out.println(board.currentPlayer() + "Thinking with depth = " + depth);
 		System.out.println("\tOrdered moves! : " + orderedMoves);
 		for (final Move move : orderedMoves) {
-			final MoveTransition moveTransition = board.currentPlayer().makeMove(move);
+			final int encodedMove = MoveEncoding.encode(move);
 			this.quiescenceCount = 0;
 			final String s;
-			if (moveTransition.getMoveStatus().isDone()) {
+			if (searchBoard.makeMove(encodedMove)) {
 				final long candidateMoveStartTime = System.nanoTime();
-				currentValue = color.isWhite() ?
-					min(moveTransition.getTransitionBoard(), currentPlayer, Move.NULL_MOVE, highestSeenValue, lowestSeenValue, depth-1) :
-					max(moveTransition.getTransitionBoard(), currentPlayer, Move.NULL_MOVE, highestSeenValue, lowestSeenValue, depth-1);
-				if (color.isWhite() && currentValue > highestSeenValue) {
-					highestSeenValue = currentValue;
-					bestMove = move;
-					setChanged();
-					notifyObservers(bestMove);
-				} else if (color.isBlack() && currentValue < lowestSeenValue) {
-					lowestSeenValue = currentValue;
+				int currentValue;
+				if (bestMove == Move.NULL_MOVE) {
+					currentValue = -search(searchBoard, -INFINITY, -alpha, depth-1, encodedMove);
+				} else {
+					currentValue = -search(searchBoard, -alpha-1, -alpha, depth-1, encodedMove);
+					if (currentValue > alpha) {
+						currentValue = -search(searchBoard, -INFINITY, -alpha, depth-1, encodedMove);
+					}
+				}
+				searchBoard.unmakeMove();
+				if (currentValue > alpha || bestMove == Move.NULL_MOVE) {
+					alpha = currentValue;
 					bestMove = move;
-					setChanged();
-					notifyObservers(bestMove);
+					updatePrincipalVariation(0, encodedMove);
 				}
-				final String quiescenceInfo = " [hi = " + highestSeenValue + " low = " +
-						lowestSeenValue + "] quiescenceCount = " + this.quiescenceCount;
+				final String quiescenceInfo = " [score = " + alpha + "] quiescenceCount = " + this.quiescenceCount;
 				s = "\t" + toString() + " analyzing move (" + moveCounter + "/" + numMoves + ") " + 
 						move + " (best move so far is: " + bestMove + quiescenceInfo + " took " +
 						calculateTimeTaken(candidateMoveStartTime, System.nanoTime());
@@ -111,81 +175,233 @@ public class AlphaBetaWithMoveOrdering extends Observable implements MoveStrateg
 			System.out.println(s);
 			moveCounter++;
 		}
+		this.principalVariation = toMoves(board, this.pvTable[0], this.pvLength[0]);
 		this.executionTime = System.currentTimeMillis() - startTime;
-		System.out.printf("%s SELECTS %s [#boards evaluated = %d, time taken = %d ms, eval rate = %.1f cutoffCount = %d prune percent = %.2f\n",
+		System.out.printf("%s SELECTS %s [#boards evaluated = %d, time taken = %d ms, eval rate = %.1f cutoffCount = %d prune percent = %.2f" +
+				" tableHits = %d/%d hit rate = %.2f tableCutoffs = %d\n",
 				board.currentPlayer(), bestMove, this.boardsEvaluated, this.executionTime, (1000*((double) this.boardsEvaluated/this.executionTime)),
-				this.cutOffsProduced, 100*((double) this.cutOffsProduced/this.boardsEvaluated));
+				this.cutOffsProduced, 100*((double) this.cutOffsProduced/this.boardsEvaluated),
+				this.tableHits, this.tableProbes, 100*((double) this.tableHits/this.tableProbes), this.tableCutOffs);
+		System.out.printf("\tfirstMoveCutoffs = %d/%d first move cutoff rate = %.2f\n", this.firstMoveCutOffs,
+				this.cutOffsProduced, 100*((double) this.firstMoveCutOffs/this.cutOffsProduced));
+		System.out.printf("\tnullMoveCutoffs = %d/%d lateMovesReduced = %d reSearched = %d losingCapturesSkipped = %d\n",
+				this.nullMoveCutOffs, this.nullMoveTries, this.lateMovesReduced, this.lateMoveReSearches,
+				this.losingCapturesSkipped);
+		System.out.println("\tPrincipal variation: " + this.principalVariation);
+		if (MoveGenerationStats.ENABLED) {
+			System.out.println("\t" + MoveGenerationStats.report());
+		}
 		return bestMove;
 	}
 	
-	public int max(final Board board, final Player moveMakingPlayer, final Move priorMove, 
-				   final int highest, final int lowest, final int depth) {
+	/** Zeroes the search counters, so each iteration's report describes that iteration alone. */
+	private void resetStatistics() {
+		this.boardsEvaluated = 0;
+		this.cutOffsProduced = 0;
+		this.firstMoveCutOffs = 0;
+		this.tableProbes = 0;
+		this.tableHits = 0;
+		this.tableCutOffs = 0;
+		this.nullMoveTries = 0;
+		this.nullMoveCutOffs = 0;
+		this.lateMovesReduced = 0;
+		this.lateMoveReSearches = 0;
+		this.losingCapturesSkipped = 0;
+	}
+	
+	private int search(final SearchBoard board, final int alpha, final int beta, final int depth, final int priorMove) {
+		return search(board, alpha, beta, depth, priorMove, false);
+	}
+	
+	/**
+	 * Negamax principal variation search: scores are from the side to move's
+	 * point of view. The first move of a node is searched with the full
+	 * window and the rest with a null window, re-searched only if they beat
+	 * alpha. Search ending on the root player's move, or after a capture,
+	 * continues one more quiescence ply, which skips captures that lose
+	 * material by static exchange. Having skipped moves, a quiescence ply is
+	 * not stored in the table, where it would pass for a full depth-1 search.
+	 */
+	private int search(final SearchBoard board, int alpha, final int beta, final int depth, final int priorMove,
+					   final boolean isQuiescence) {
+		this.clock.checkHardLimit();
+		final int ply = board.getPly();
+		if (ply < MAX_PV_PLY) {
+			this.pvLength[ply] = 0;
+		}
 		if (depth == 0) {
-			final boolean isEndGame = BoardUtils.isEndGame(board);
-			final boolean searchEndsOnEvenPlies = searchEndedOnEvenPlies(board, moveMakingPlayer);
-			if ((searchEndsOnEvenPlies && !priorMove.isAttack()) || isEndGame) {
-				this.boardsEvaluated++;
-				return this.evaluator.evaluate(board, depth);
+			final boolean isEndGame = !board.hasLegalMoves();
+			final boolean searchEndsOnEvenPlies = searchEndedOnEvenPlies(board, this.rootColor);
+			if ((searchEndsOnEvenPlies && !MoveEncoding.isCapture(priorMove)) || isEndGame ||
+				(searchEndsOnEvenPlies && this.quiescenceCount >= 1000)) {
+				return evaluate(board, depth);
+			}
+			this.quiescenceCount++;
+			return search(board, alpha, beta, 1, priorMove, true);
+		}
+		final boolean isPrincipalVariationNode = beta - alpha > 1;
+		final long key = board.zobristKey();
+		final long entry = probe(key);
+		if (!isPrincipalVariationNode && isUsable(entry, depth, alpha, beta)) {
+			return TranspositionTable.getScore(entry);
+		}
+		final boolean isInCheck = board.isInCheck(board.currentColor());
+		if (this.nullMovePruning && !isPrincipalVariationNode && !isInCheck && depth >= NULL_MOVE_MIN_DEPTH &&
+			priorMove != MoveEncoding.NULL_MOVE && board.hasNonPawnMaterial()) {
+			this.nullMoveTries++;
+			final int reduction = depth > NULL_MOVE_DEEP_DEPTH ? NULL_MOVE_DEEP_REDUCTION : NULL_MOVE_REDUCTION;
+			board.makeNullMove();
+			final int value = -search(board, -beta, -beta+1, Math.max(0, depth-1-reduction), MoveEncoding.NULL_MOVE);
+			board.unmakeNullMove();
+			if (value >= beta) {
+				this.nullMoveCutOffs++;
+				return beta;
+			}
+		}
+		int bestScore = -INFINITY;
+		int bestMove = MoveEncoding.NULL_MOVE;
+		int legalMoves = 0;
+		final MovePicker picker = movePicker(ply);
+		picker.reset(board, this.moveHistory, TranspositionTable.getMove(entry), isInCheck, isQuiescence);
+		for (int move = picker.nextMove(); move != MoveEncoding.NULL_MOVE; move = picker.nextMove()) {
+			if (!board.makeMove(move)) {
+				continue;
+			}
+			legalMoves++;
+			int value;
+			if (legalMoves == 1) {
+				value = -search(board, -beta, -alpha, depth-1, move);
 			} else {
-				if (!searchEndsOnEvenPlies || this.quiescenceCount < 1000) {
-					this.quiescenceCount++;
-					return min(board, moveMakingPlayer, priorMove, highest, lowest, 1);
+				final int reduction = lateMoveReduction(board, move, depth, legalMoves, isInCheck,
+						isPrincipalVariationNode);
+				value = -search(board, -alpha-1, -alpha, depth-1-reduction, move);
+				if (reduction > 0 && value > alpha) {
+					this.lateMoveReSearches++;
+					value = -search(board, -alpha-1, -alpha, depth-1, move);
+				}
+				if (value > alpha && value < beta) {
+					value = -search(board, -beta, -alpha, depth-1, move);
 				}
-				this.boardsEvaluated++;
-				return this.evaluator.evaluate(board, depth);
 			}
-		} else {
-			int currentHighest = highest;
-			for (final Move move : this.moveSorter.sort((board.currentPlayer().getLegalMoves()))) {
-				final MoveTransition moveTransition = board.currentPlayer().makeMove(move);
-				if (moveTransition.getMoveStatus().isDone()) {
-					currentHighest = Math.max(currentHighest, min(moveTransition.getTransitionBoard(),
-							moveMakingPlayer, move, currentHighest, lowest, depth-1));
-					if (lowest <= currentHighest) {
+			board.unmakeMove();
+			if (value > bestScore) {
+				bestScore = value;
+				if (value > alpha) {
+					alpha = value;
+					bestMove = move;
+					updatePrincipalVariation(ply, move);
+					if (alpha >= beta) {
 						this.cutOffsProduced++;
+						if (legalMoves == 1) {
+							this.firstMoveCutOffs++;
+						}
+						if (!MoveEncoding.isCapture(move) && !MoveEncoding.isPromotion(move)) {
+							this.moveHistory.storeCutOff(ply, move, depth);
+						}
 						break;
 					}
 				}
 			}
-			return currentHighest;
 		}
+		this.losingCapturesSkipped += picker.getSkippedCaptures();
+		if (legalMoves == 0) {
+			return evaluate(board, depth);
+		}
+		if (!isQuiescence) {
+			this.transpositionTable.store(key, bestMove, bestScore, depth, bestScore >= beta ?
+					TranspositionTable.LOWER_BOUND : bestMove != MoveEncoding.NULL_MOVE ?
+					TranspositionTable.EXACT : TranspositionTable.UPPER_BOUND);
+		}
+		return bestScore;
 	}
 	
-	public int min(final Board board, final Player moveMakingPlayer, final Move priorMove, 
-				   final int highest, final int lowest, final int depth) {
-		if (depth == 0) {
-			final boolean isEndGame = BoardUtils.isEndGame(board);
-			final boolean searchEndsOnEvenPlies = searchEndedOnEvenPlies(board, moveMakingPlayer);
-			if ((searchEndsOnEvenPlies && !priorMove.isAttack()) || isEndGame) {
-				this.boardsEvaluated++;
-				return this.evaluator.evaluate(board, depth);
-			} else {
-				if (!searchEndsOnEvenPlies || this.quiescenceCount < 1000) {
-					this.quiescenceCount++;
-					return max(board, moveMakingPlayer, priorMove, highest, lowest, 1);
-				}
-				this.boardsEvaluated++;
-				return this.evaluator.evaluate(board, depth);
-			}
-		} else {
-			int currentLowest = lowest;
-			for (final Move move : this.moveSorter.sort((board.currentPlayer().getLegalMoves()))) {
-				final MoveTransition moveTransition = board.currentPlayer().makeMove(move);
-				if (moveTransition.getMoveStatus().isDone()) {
-					currentLowest = Math.min(currentLowest, max(moveTransition.getTransitionBoard(),
-							moveMakingPlayer, priorMove, highest, currentLowest, depth-1));
-					if (currentLowest <= highest) {
-						this.cutOffsProduced++;
-						break;
-					}
-				}
+	/**
+	 * How many plies less to search a move, just made, that comes late in the
+	 * ordering: quiet moves that neither escape nor give check, past the first
+	 * few, lose a ply, and outside the principal variation very late ones two.
+	 */
+	private int lateMoveReduction(final SearchBoard board, final int move, final int depth, final int moveNumber,
+								  final boolean wasInCheck, final boolean isPrincipalVariationNode) {
+		if (!this.lateMoveReductions || depth < LATE_MOVE_MIN_DEPTH || moveNumber <= LATE_MOVE_MIN_MOVES ||
+			wasInCheck || MoveEncoding.isCapture(move) || MoveEncoding.isPromotion(move) ||
+			board.isInCheck(board.currentColor())) {
+			return 0;
+		}
+		this.lateMovesReduced++;
+		return !isPrincipalVariationNode && moveNumber > LATE_MOVE_DEEP_MOVES && depth > LATE_MOVE_MIN_DEPTH ? 2 : 1;
+	}
+	
+	private int evaluate(final SearchBoard board, final int depth) {
+		this.boardsEvaluated++;
+		final int score = this.evaluator.evaluate(board, depth);
+		return board.currentColor().isWhite() ? score : -score;
+	}
+	
+	/** Makes the move followed by the line below it the line at this ply of the triangular PV table. */
+	private void updatePrincipalVariation(final int ply, final int move) {
+		if (ply >= MAX_PV_PLY) {
+			return;
+		}
+		final int childLength = ply + 1 < MAX_PV_PLY ? this.pvLength[ply + 1] : 0;
+		this.pvTable[ply][0] = move;
+		if (childLength > 0) {
+			System.arraycopy(this.pvTable[ply + 1], 0, this.pvTable[ply], 1,
+					Math.min(childLength, MAX_PV_PLY - 1));
+		}
+		this.pvLength[ply] = Math.min(childLength + 1, MAX_PV_PLY);
+	}
+	
+	private static List<Move> toMoves(final Board board, final int[] line, final int length) {
+		final List<Move> moves = new ArrayList<>(length);
+		Board current = board;
+		for (int i = 0; i < length; i++) {
+			final Move move = MoveEncoding.toMove(current, line[i]);
+			final MoveTransition transition = current.currentPlayer().makeMove(move);
+			if (!transition.getMoveStatus().isDone()) {
+				break;
 			}
-			return currentLowest;
+			moves.add(move);
+			current = transition.getTransitionBoard();
+		}
+		return Collections.unmodifiableList(moves);
+	}
+	
+	private long probe(final long key) {
+		this.tableProbes++;
+		final long entry = this.transpositionTable.probe(key);
+		if (entry != TranspositionTable.NO_ENTRY) {
+			this.tableHits++;
+		}
+		return entry;
+	}
+	
+	/** Whether a table entry is deep enough, and its bound tight enough, to stand in for searching this node. */
+	private boolean isUsable(final long entry, final int depth, final int alpha, final int beta) {
+		if (entry == TranspositionTable.NO_ENTRY || TranspositionTable.getDepth(entry) < depth) {
+			return false;
+		}
+		final int score = TranspositionTable.getScore(entry);
+		final int bound = TranspositionTable.getBound(entry);
+		if (bound == TranspositionTable.EXACT ||
+			bound == TranspositionTable.LOWER_BOUND && score >= beta ||
+			bound == TranspositionTable.UPPER_BOUND && score <= alpha) {
+			this.tableCutOffs++;
+			return true;
+		}
+		return false;
+	}
+	
+	private MovePicker movePicker(final int ply) {
+		MovePicker picker = this.movePickers[ply];
+		if (picker == null) {
+			picker = new MovePicker();
+			this.movePickers[ply] = picker;
 		}
+		return picker;
 	}
 	
-	private static boolean searchEndedOnEvenPlies(Board board, Player moveMakingPlayer) {
-		return moveMakingPlayer.getColor() != board.currentPlayer().getColor();
+	private static boolean searchEndedOnEvenPlies(final SearchBoard board, final Color moveMakingColor) {
+		return moveMakingColor != board.currentColor();
 	}
 	
 	private static String calculateTimeTaken(final long start, final long end) {
@@ -1,9 +1,12 @@
 package com.chess.engine.player.ai;
 
 import com.chess.engine.board.Board;
+import com.chess.engine.board.SearchBoard;
 
 public interface BoardEvaluator {
 	
 	int evaluate(Board board, int depth);
+	
+	int evaluate(SearchBoard board, int depth);
 
 }
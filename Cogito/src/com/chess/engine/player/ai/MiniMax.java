@@ -1,15 +1,23 @@
 package com.chess.engine.player.ai;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Observable;
 import java.util.concurrent.atomic.AtomicLong;
 
 import com.chess.engine.board.Board;
 import com.chess.engine.board.BoardUtils;
 import com.chess.engine.board.Move;
+import com.chess.engine.board.MoveGenerationStats;
+import com.chess.engine.board.MoveList;
 import com.chess.engine.board.MoveTransition;
+import com.chess.engine.board.SearchBoard;
+import com.chess.engine.player.ai.SearchClock.SearchTimeoutException;
 
 public final class MiniMax extends Observable implements MoveStrategy {
 	private final BoardEvaluator evaluator;
+	private final MoveList.PlyStack moveLists;
+	private SearchClock clock;
 	private long boardsEvaluated;
 	private long executionTime;
 	private FreqTableRow[] freqTable;
@@ -17,7 +25,9 @@ public final class MiniMax extends Observable implements MoveStrategy {
 	
 	public MiniMax() {
 		this.evaluator = new StandardBoardEvaluator();
+		this.moveLists = new MoveList.PlyStack(SearchBoard.MAX_PLY);
 		this.boardsEvaluated = 0;
+		this.clock = new SearchClock(SearchLimits.depth(1));
 	}
 	
 	@Override
@@ -31,25 +41,57 @@ public final class MiniMax extends Observable implements MoveStrategy {
 	}
 
 	@Override
-	public Move execute(Board board, int depth) {
+	public Move execute(final Board board, final int depth) {
+		return execute(board, SearchLimits.depth(depth));
+	}
+	
+	@Override
+	public Move execute(final Board board, final SearchLimits limits) {
+		this.clock = new SearchClock(limits);
+		Move bestMove = Move.NULL_MOVE;
+		for (int depth = limits.isTimed() ? 1 : limits.getMaxDepth(); depth <= limits.getMaxDepth(); depth++) {
+			if (bestMove != Move.NULL_MOVE && this.clock.isSoftLimitReached()) {
+				break;
+			}
+			try {
+				bestMove = searchRoot(board, depth, bestMove);
+			} catch (final SearchTimeoutException e) {
+				System.out.println("\t" + toString() + " abandoned depth " + depth + " after " +
+						this.clock.getElapsedMillis() + " ms (" + limits + ")");
+				break;
+			}
+		}
+		if (bestMove == Move.NULL_MOVE && !board.currentPlayer().getLegalMoves().isEmpty()) {
+			bestMove = board.currentPlayer().getLegalMoves().iterator().next();
+		}
+		return bestMove;
+	}
+	
+	private Move searchRoot(final Board board, final int depth, final Move previousBestMove) {
 		final long startTime = System.currentTimeMillis();
+		this.boardsEvaluated = 0;
 		Move bestMove = Move.NULL_MOVE;
 		int highestSeenValue = Integer.MIN_VALUE;
 		int lowestSeenValue = Integer.MAX_VALUE;
 		int currentValue;
 		System.out.println(board.currentPlayer() + " Thinking with depth = " + depth);
-		this.freqTable = new FreqTableRow[board.currentPlayer().getLegalMoves().size()];
+		final List<Move> orderedMoves = new ArrayList<>(board.currentPlayer().getLegalMoves());
+		if (previousBestMove != Move.NULL_MOVE && orderedMoves.remove(previousBestMove)) {
+			orderedMoves.add(0, previousBestMove);
+		}
+		this.freqTable = new FreqTableRow[orderedMoves.size()];
 		this.freqTableIndex = 0;
 		int moveCounter = 1;
-		int numMoves = board.currentPlayer().getLegalMoves().size();
-		for (final Move move : board.currentPlayer().getLegalMoves()) {
+		int numMoves = orderedMoves.size();
+		for (final Move move : orderedMoves) {
 			final MoveTransition moveTransition = board.currentPlayer().makeMove(move);
 			if (moveTransition.getMoveStatus().isDone()) {
 				FreqTableRow row = new FreqTableRow(move);
 				freqTable[freqTableIndex] = row;
+				final SearchBoard searchBoard = new SearchBoard(moveTransition.getTransitionBoard());
 				currentValue = board.currentPlayer().getColor().isWhite() ?
-						min(moveTransition.getTransitionBoard(), depth-1) :
-						max(moveTransition.getTransitionBoard(), depth-1);
+						min(searchBoard, depth-1) :
+						max(searchBoard, depth-1);
 				System.out.println("\t" + toString() + " analyzing move (" +
 						moveCounter + "/" + numMoves + ") " + move + " scores " +
 						currentValue + " " + this.freqTable[this.freqTableIndex]);
@@ -74,6 +116,9 @@ public final class MiniMax extends Observable implements MoveStrategy {
 		System.out.printf("%s SELECTS %s [#boards = %d time taken = %d ms, rate = %.1f\n",
 				board.currentPlayer(), bestMove, this.boardsEvaluated, this.executionTime,
 				(1000 * ((double)this.boardsEvaluated / this.executionTime)));
+		if (MoveGenerationStats.ENABLED) {
+			System.out.println("\t" + MoveGenerationStats.report());
+		}
 		long total = 0;
 		for (FreqTableRow row : freqTable) {
 			if (row != null) {
@@ -86,59 +131,54 @@ public final class MiniMax extends Observable implements MoveStrategy {
 		return bestMove;
 	}
 	
-	public int min(final Board board, final int depth) {
+	public int min(final SearchBoard board, final int depth) {
+		this.clock.checkHardLimit();
 		if (depth == 0) {
 			this.boardsEvaluated++;
 			freqTable[freqTableIndex].increment();
 			return this.evaluator.evaluate(board, depth);
 		}
-		if (isEndGameScenario(board)) {
-			return this.evaluator.evaluate(board, depth);
-		}
 		int lowestSeenValue = Integer.MAX_VALUE;
-		for (final Move move : board.currentPlayer().getLegalMoves()) {
-			final MoveTransition moveTransition = board.currentPlayer()
-					.makeMove(move);
-			if (moveTransition.getMoveStatus().isDone()) {
-				final int currentValue = max(
-						moveTransition.getTransitionBoard(), depth - 1);
+		boolean hasLegalMove = false;
+		final MoveList moves = this.moveLists.get(board.getPly());
+		final int numMoves = board.generateMoves(moves);
+		for (int i = 0; i < numMoves; i++) {
+			if (board.makeMove(moves.get(i))) {
+				hasLegalMove = true;
+				final int currentValue = max(board, depth - 1);
+				board.unmakeMove();
 				if (currentValue <= lowestSeenValue) {
 					lowestSeenValue = currentValue;
 				}
 			}
 		}
-		return lowestSeenValue;
+		return hasLegalMove ? lowestSeenValue : this.evaluator.evaluate(board, depth);
 	}
 
-	public int max(final Board board, final int depth) {
+	public int max(final SearchBoard board, final int depth) {
+		this.clock.checkHardLimit();
 		if (depth == 0) {
 			this.boardsEvaluated++;
 			freqTable[freqTableIndex].increment();
 			return this.evaluator.evaluate(board, depth);
 		}
-		if (isEndGameScenario(board)) {
-			return this.evaluator.evaluate(board, depth);
-		}
 		int highestSeenValue = Integer.MIN_VALUE;
-		for (final Move move : board.currentPlayer().getLegalMoves()) {
-			final MoveTransition moveTransition = board.currentPlayer()
-					.makeMove(move);
-			if (moveTransition.getMoveStatus().isDone()) {
-				final int currentValue = min(
-						moveTransition.getTransitionBoard(), depth - 1);
+		boolean hasLegalMove = false;
+		final MoveList moves = this.moveLists.get(board.getPly());
+		final int numMoves = board.generateMoves(moves);
+		for (int i = 0; i < numMoves; i++) {
+			if (board.makeMove(moves.get(i))) {
+				hasLegalMove = true;
+				final int currentValue = min(board, depth - 1);
+				board.unmakeMove();
 				if (currentValue >= highestSeenValue) {
 					highestSeenValue = currentValue;
 				}
 			}
 		}
-		return highestSeenValue;
+		return hasLegalMove ? highestSeenValue : this.evaluator.evaluate(board, depth);
 	}
 
-	private static boolean isEndGameScenario(final Board board) {
-		return board.currentPlayer().isInCheckMate() ||
-			   board.currentPlayer().isInStaleMate();
-	}
-	
 	private static class FreqTableRow {
 		private final Move move;
 		private final AtomicLong count;
@@ -0,0 +1,68 @@
+package com.chess.engine.player.ai;
+
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.board.MoveEncoding;
+import com.chess.engine.board.SearchBoard;
+
+/**
+ * What earlier beta cutoffs say about quiet moves: two killer moves per
+ * ply, the last quiet moves that refuted a sibling position, and a
+ * history score per moved piece and destination square that grows with
+ * the depth of every cutoff the move caused.
+ */
+final class MoveHistory {
+	static final int KILLERS_PER_PLY = 2;
+	private static final int MAX_HISTORY = 1 << 20;
+
+	private final int[][] killers;
+	private final int[][] history;
+
+	MoveHistory() {
+		this.killers = new int[SearchBoard.MAX_PLY][KILLERS_PER_PLY];
+		this.history = new int[BoardUtils.NUM_PIECE_INDEXES][BoardUtils.NUM_TILES];
+	}
+
+	/** Forgets the killers and halves the history, so a new search keeps only a fading memory of the last. */
+	void newSearch() {
+		for (final int[] plyKillers : this.killers) {
+			plyKillers[0] = MoveEncoding.NULL_MOVE;
+			plyKillers[1] = MoveEncoding.NULL_MOVE;
+		}
+		ageHistory();
+	}
+
+	void storeCutOff(final int ply, final int move, final int depth) {
+		if (this.killers[ply][0] != move) {
+			this.killers[ply][1] = this.killers[ply][0];
+			this.killers[ply][0] = move;
+		}
+		final int[] pieceHistory = this.history[MoveEncoding.getMovedPiece(move)];
+		final int to = MoveEncoding.getTo(move);
+		pieceHistory[to] += depth * depth;
+		if (pieceHistory[to] >= MAX_HISTORY) {
+			ageHistory();
+		}
+	}
+
+	/** 2 for the newest killer at this ply, 1 for the older one, 0 otherwise. */
+	int killerRank(final int ply, final int move) {
+		return move == this.killers[ply][0] ? 2 : move == this.killers[ply][1] ? 1 : 0;
+	}
+
+	int getKiller(final int ply, final int index) {
+		return this.killers[ply][index];
+	}
+
+	int getHistory(final int move) {
+		return this.history[MoveEncoding.getMovedPiece(move)][MoveEncoding.getTo(move)];
+	}
+
+	private void ageHistory() {
+		for (final int[] pieceHistory : this.history) {
+			for (int i = 0; i < pieceHistory.length; i++) {
+				pieceHistory[i] >>= 1;
+			}
+		}
+	}
+
+}
@@ -120,10 +120,8 @@ public final class MoveOrdering {
 	}
 	
 	private static boolean isEndGameScenario(final Board board) {
-		return board.currentPlayer().isInCheckMate() ||
-			   board.currentPlayer().isInStaleMate() ||
-			   board.currentPlayer().getOpponent().isInCheckMate() || 
-			   board.currentPlayer().getOpponent().isInStaleMate();
+		return board.currentPlayer().getGameStatus().isGameOver() ||
+			   board.currentPlayer().getOpponent().getGameStatus().isGameOver();
 	}
 
 }
@@ -0,0 +1,244 @@
+package com.chess.engine.player.ai;
+
+import com.chess.engine.board.MoveEncoding;
+import com.chess.engine.board.MoveList;
+import com.chess.engine.board.SearchBoard;
+import com.chess.engine.pieces.Piece.PieceType;
+
+/**
+ * Hands out the moves of one node a stage at a time, generating each stage
+ * only when the one before it runs out: the hash move, captures and
+ * promotions that do not lose material by static exchange, in MVV-LVA
+ * order, this ply's killers, quiet moves by history, and last the losing
+ * captures and underpromotions. A node that fails high on an early move
+ * never generates its quiet moves. In check all evasions are generated
+ * together and ordered the same way. A search keeps one picker per ply.
+ */
+final class MovePicker {
+	private static final int HASH_MOVE = 0;
+	private static final int GENERATE_CAPTURES = 1;
+	private static final int GOOD_CAPTURES = 2;
+	private static final int KILLERS = 3;
+	private static final int GENERATE_QUIETS = 4;
+	private static final int QUIETS = 5;
+	private static final int BAD_CAPTURES = 6;
+	private static final int GENERATE_EVASIONS = 7;
+	private static final int EVASIONS = 8;
+	private static final int DONE = 9;
+	private static final int CAPTURE_SCORE = 1 << 29;
+	private static final int KILLER_SCORE = 1 << 28;
+	private static final PieceType[] PIECE_TYPES = PieceType.values();
+
+	private final MoveList moves;
+	private final int[] scores;
+	private final int[] badCaptures;
+	private final int[] killers;
+	private SearchBoard board;
+	private MoveHistory moveHistory;
+	private int ply;
+	private int hashMove;
+	private int stage;
+	private int index;
+	private int numBadCaptures;
+	private boolean skipLosingCaptures;
+	private int numSkippedCaptures;
+	private boolean quietMovesGenerated;
+
+	MovePicker() {
+		this.moves = new MoveList();
+		this.scores = new int[MoveList.MAX_MOVES];
+		this.badCaptures = new int[MoveList.MAX_MOVES];
+		this.killers = new int[MoveHistory.KILLERS_PER_PLY];
+	}
+
+	/**
+	 * Starts picking moves for the board's current position. The hash move is
+	 * in the table's compressed form, 0 for none, and is only tried if it is
+	 * pseudo-legal here. Losing captures can be dropped instead of tried last.
+	 */
+	void reset(final SearchBoard board, final MoveHistory moveHistory, final int compressedHashMove,
+			   final boolean isInCheck, final boolean skipLosingCaptures) {
+		this.board = board;
+		this.moveHistory = moveHistory;
+		this.ply = board.getPly();
+		this.hashMove = TranspositionTable.expandMove(board, compressedHashMove);
+		this.stage = isInCheck ? GENERATE_EVASIONS : HASH_MOVE;
+		this.killers[0] = MoveEncoding.NULL_MOVE;
+		this.killers[1] = MoveEncoding.NULL_MOVE;
+		this.index = 0;
+		this.numBadCaptures = 0;
+		this.skipLosingCaptures = skipLosingCaptures;
+		this.numSkippedCaptures = 0;
+		this.quietMovesGenerated = false;
+	}
+
+	/** How many losing captures were dropped so far, when asked to skip them. */
+	int getSkippedCaptures() {
+		return this.numSkippedCaptures;
+	}
+
+	/** Whether this node has paid for quiet move generation yet. */
+	boolean hasGeneratedQuietMoves() {
+		return this.quietMovesGenerated;
+	}
+
+	/** The next move to search, or {@link MoveEncoding#NULL_MOVE} once every stage is exhausted. */
+	int nextMove() {
+		while (true) {
+			switch (this.stage) {
+				case HASH_MOVE:
+					this.stage = GENERATE_CAPTURES;
+					if (this.hashMove != MoveEncoding.NULL_MOVE) {
+						return this.hashMove;
+					}
+					break;
+				case GENERATE_CAPTURES:
+					this.board.generateCaptures(this.moves);
+					scoreCaptures();
+					this.index = 0;
+					this.stage = GOOD_CAPTURES;
+					break;
+				case GOOD_CAPTURES:
+					while (this.index < this.moves.size()) {
+						final int move = pickNextMove(this.index++);
+						if (move == this.hashMove) {
+							continue;
+						}
+						if (isUnderPromotion(move)) {
+							this.badCaptures[this.numBadCaptures++] = move;
+							continue;
+						}
+						if (isLosingCapture(move)) {
+							if (this.skipLosingCaptures) {
+								this.numSkippedCaptures++;
+							} else {
+								this.badCaptures[this.numBadCaptures++] = move;
+							}
+							continue;
+						}
+						return move;
+					}
+					this.index = 0;
+					this.stage = KILLERS;
+					break;
+				case KILLERS:
+					while (this.index < MoveHistory.KILLERS_PER_PLY) {
+						final int killer = this.moveHistory.getKiller(this.ply, this.index++);
+						if (killer != MoveEncoding.NULL_MOVE && killer != this.hashMove &&
+							this.board.findMove(MoveEncoding.getFrom(killer), MoveEncoding.getTo(killer),
+									MoveEncoding.getPromotionType(killer)) == killer) {
+							this.killers[this.index - 1] = killer;
+							return killer;
+						}
+					}
+					this.stage = GENERATE_QUIETS;
+					break;
+				case GENERATE_QUIETS:
+					this.board.generateQuietMoves(this.moves);
+					this.quietMovesGenerated = true;
+					scoreQuietMoves();
+					this.index = 0;
+					this.stage = QUIETS;
+					break;
+				case QUIETS:
+					while (this.index < this.moves.size()) {
+						final int move = pickNextMove(this.index++);
+						if (move != this.hashMove && move != this.killers[0] && move != this.killers[1]) {
+							return move;
+						}
+					}
+					this.index = 0;
+					this.stage = BAD_CAPTURES;
+					break;
+				case BAD_CAPTURES:
+					if (this.index < this.numBadCaptures) {
+						return this.badCaptures[this.index++];
+					}
+					this.stage = DONE;
+					break;
+				case GENERATE_EVASIONS:
+					this.board.generateMoves(this.moves);
+					scoreEvasions();
+					this.index = 0;
+					this.stage = EVASIONS;
+					break;
+				case EVASIONS:
+					if (this.index < this.moves.size()) {
+						return pickNextMove(this.index++);
+					}
+					this.stage = DONE;
+					break;
+				default:
+					return MoveEncoding.NULL_MOVE;
+			}
+		}
+	}
+
+	private void scoreCaptures() {
+		for (int i = 0; i < this.moves.size(); i++) {
+			this.scores[i] = mostValuableVictimLeastValuableAttacker(this.moves.get(i));
+		}
+	}
+
+	private void scoreQuietMoves() {
+		for (int i = 0; i < this.moves.size(); i++) {
+			this.scores[i] = this.moveHistory.getHistory(this.moves.get(i));
+		}
+	}
+
+	/** Captures by MVV-LVA, then killers, then quiet moves by history; the hash move first of all. */
+	private void scoreEvasions() {
+		for (int i = 0; i < this.moves.size(); i++) {
+			final int move = this.moves.get(i);
+			if (move == this.hashMove) {
+				this.scores[i] = Integer.MAX_VALUE;
+			} else if (MoveEncoding.isCapture(move)) {
+				this.scores[i] = CAPTURE_SCORE + mostValuableVictimLeastValuableAttacker(move);
+			} else {
+				final int killerRank = this.moveHistory.killerRank(this.ply, move);
+				this.scores[i] = killerRank > 0 ? KILLER_SCORE + killerRank : this.moveHistory.getHistory(move);
+			}
+		}
+	}
+
+	private static boolean isUnderPromotion(final int move) {
+		return MoveEncoding.isPromotion(move) && MoveEncoding.getPromotionType(move) != PieceType.QUEEN.ordinal();
+	}
+
+	/** Whether a capture loses material once the exchange on its square is played out. */
+	private boolean isLosingCapture(final int move) {
+		return MoveEncoding.isCapture(move) && MoveEncoding.getCapturedPieceType(move).getPieceValue() <
+				MoveEncoding.getMovedPieceType(move).getPieceValue() && this.board.staticExchange(move) < 0;
+	}
+
+	/**
+	 * The most valuable victim first and, among captures of equal victims,
+	 * the least valuable attacker. A promotion counts its gain as a victim.
+	 */
+	private static int mostValuableVictimLeastValuableAttacker(final int move) {
+		int victimValue = MoveEncoding.isCapture(move) ? MoveEncoding.getCapturedPieceType(move).getPieceValue() : 0;
+		if (MoveEncoding.isPromotion(move)) {
+			victimValue += PIECE_TYPES[MoveEncoding.getPromotionType(move)].getPieceValue() -
+					PieceType.PAWN.getPieceValue();
+		}
+		return victimValue * PIECE_TYPES.length - MoveEncoding.getMovedPieceType(move).ordinal();
+	}
+
+	/** Selection sort one step at a time: swaps the best-scored move not yet picked into place. */
+	private int pickNextMove(final int index) {
+		int best = index;
+		for (int i = index + 1; i < this.moves.size(); i++) {
+			if (this.scores[i] > this.scores[best]) {
+				best = i;
+			}
+		}
+		if (best != index) {
+			this.moves.swap(index, best);
+			final int score = this.scores[index];
+			this.scores[index] = this.scores[best];
+			this.scores[best] = score;
+		}
+		return this.moves.get(index);
+	}
+
+}
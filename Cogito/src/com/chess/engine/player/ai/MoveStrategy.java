@@ -8,5 +8,7 @@ public interface MoveStrategy {
 	long getNumBoardsEvaluated();
 	
 	Move execute(Board board, int depth);
+	
+	Move execute(Board board, SearchLimits limits);
 
 }
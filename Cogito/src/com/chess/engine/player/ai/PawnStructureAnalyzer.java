@@ -5,6 +5,7 @@ import java.util.List;
 
 import com.chess.engine.board.BoardUtils;
 import com.chess.engine.pieces.Piece;
+import com.chess.engine.pieces.Piece.PieceType;
 import com.chess.engine.player.Player;
 import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.ImmutableList.Builder;
@@ -54,13 +55,7 @@ public final class PawnStructureAnalyzer {
 	}
 	
 	private static Collection<Piece> calculatePawnLocations(final Player player) {
-		final Builder<Piece> playerPawnLocations = new Builder<>();
-		for (final Piece piece : player.getActivePieces()) {
-			if (piece.getPieceType().isPawn()) {
-				playerPawnLocations.add(piece);
-			}
-		}
-		return playerPawnLocations.build();
+		return player.getActivePieces(PieceType.PAWN);
 	}
 	
 	private static int calculateDoubledPawnPenalty(final ListMultimap<Integer, Piece> pawnsOnColumnTable) {
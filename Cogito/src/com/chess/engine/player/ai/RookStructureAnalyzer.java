@@ -6,6 +6,7 @@ import com.google.common.collect.ImmutableList.Builder;
 import com.chess.engine.board.Board;
 import com.chess.engine.board.BoardUtils;
 import com.chess.engine.pieces.Piece;
+import com.chess.engine.pieces.Piece.PieceType;
 import com.chess.engine.player.Player;
 
 public class RookStructureAnalyzer {
@@ -41,10 +42,8 @@ public class RookStructureAnalyzer {
 	
 	private static List<Integer> calculateRookLocations(final Player player) {
 		final Builder<Integer> playerRookLocations = new Builder<>();
-		for (final Piece piece : player.getActivePieces()) {
-			if (piece.getPieceType().isRook()) {
-				playerRookLocations.add(piece.getPiecePosition());
-			}
+		for (final Piece piece : player.getActivePieces(PieceType.ROOK)) {
+			playerRookLocations.add(piece.getPiecePosition());
 		}
 		return playerRookLocations.build();
 	}
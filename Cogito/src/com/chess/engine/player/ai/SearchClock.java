@@ -0,0 +1,51 @@
+package com.chess.engine.player.ai;
+
+/**
+ * Wall-clock deadlines of one search. Nodes call {@link #checkHardLimit},
+ * which reads the clock only every {@link #NODES_PER_CHECK} calls and
+ * unwinds the search with a {@link SearchTimeoutException} once the hard
+ * limit has passed.
+ */
+final class SearchClock {
+	private static final int NODES_PER_CHECK = 1024;
+	private static final long NANOS_PER_MILLI = 1000000L;
+
+	private final SearchLimits limits;
+	private final long startTime;
+	private int nodesUntilCheck;
+
+	SearchClock(final SearchLimits limits) {
+		this.limits = limits;
+		this.startTime = System.nanoTime();
+		this.nodesUntilCheck = NODES_PER_CHECK;
+	}
+
+	long getElapsedMillis() {
+		return (System.nanoTime() - this.startTime) / NANOS_PER_MILLI;
+	}
+
+	boolean isSoftLimitReached() {
+		return this.limits.isTimed() && getElapsedMillis() >= this.limits.getSoftLimitMillis();
+	}
+
+	void checkHardLimit() {
+		if (--this.nodesUntilCheck > 0) {
+			return;
+		}
+		this.nodesUntilCheck = NODES_PER_CHECK;
+		if (this.limits.isTimed() && getElapsedMillis() >= this.limits.getHardLimitMillis()) {
+			throw SearchTimeoutException.INSTANCE;
+		}
+	}
+
+	/** Thrown through the search when the hard limit passes; carries no stack trace. */
+	static final class SearchTimeoutException extends RuntimeException {
+		private static final long serialVersionUID = 1L;
+		static final SearchTimeoutException INSTANCE = new SearchTimeoutException();
+
+		private SearchTimeoutException() {
+			super("Search hard time limit reached", null, false, false);
+		}
+	}
+
+}
@@ -0,0 +1,78 @@
+package com.chess.engine.player.ai;
+
+/**
+ * How long a {@link MoveStrategy} may think. A search deepens one ply at a
+ * time up to the maximum depth; it starts no new iteration once the soft
+ * limit has passed, and abandons the current one at the hard limit, playing
+ * the best move of the last depth it completed.
+ */
+public final class SearchLimits {
+	public static final int MAX_DEPTH = 64;
+	public static final long NO_LIMIT = Long.MAX_VALUE;
+	/** Moves still to be played that a clock budget is spread over. */
+	private static final int MOVES_TO_GO = 30;
+	/** Time kept back from the clock for the GUI and move transmission. */
+	private static final long SAFETY_MARGIN_MILLIS = 50;
+
+	private final int maxDepth;
+	private final long softLimitMillis;
+	private final long hardLimitMillis;
+
+	private SearchLimits(final int maxDepth, final long softLimitMillis, final long hardLimitMillis) {
+		if (maxDepth < 1 || maxDepth > MAX_DEPTH) {
+			throw new RuntimeException("Search depth must be between 1 and " + MAX_DEPTH + ": " + maxDepth);
+		}
+		this.maxDepth = maxDepth;
+		this.softLimitMillis = softLimitMillis;
+		this.hardLimitMillis = hardLimitMillis;
+	}
+
+	/** Searches exactly to the given depth, however long it takes. */
+	public static SearchLimits depth(final int depth) {
+		return new SearchLimits(depth, NO_LIMIT, NO_LIMIT);
+	}
+
+	/**
+	 * Thinks for at most the given time. No iteration starts after half of
+	 * it, since the next one usually takes several times as long as the last.
+	 */
+	public static SearchLimits moveTime(final long millis) {
+		final long hardLimit = Math.max(1, millis);
+		return new SearchLimits(MAX_DEPTH, hardLimit / 2, hardLimit);
+	}
+
+	/**
+	 * Spreads the remaining clock time over the moves still to come, plus
+	 * most of the increment, allowing a single move up to twice that budget
+	 * but never more than a quarter of what is left.
+	 */
+	public static SearchLimits clock(final long remainingMillis, final long incrementMillis) {
+		final long available = Math.max(1, remainingMillis - SAFETY_MARGIN_MILLIS);
+		final long budget = Math.min(available, available / MOVES_TO_GO + incrementMillis * 3 / 4);
+		final long hardLimit = Math.max(1, Math.min(2 * budget, Math.max(budget, available / 4)));
+		return new SearchLimits(MAX_DEPTH, budget / 2, hardLimit);
+	}
+
+	public int getMaxDepth() {
+		return this.maxDepth;
+	}
+
+	public long getSoftLimitMillis() {
+		return this.softLimitMillis;
+	}
+
+	public long getHardLimitMillis() {
+		return this.hardLimitMillis;
+	}
+
+	public boolean isTimed() {
+		return this.hardLimitMillis != NO_LIMIT;
+	}
+
+	@Override
+	public String toString() {
+		return isTimed() ? "soft " + this.softLimitMillis + " ms, hard " + this.hardLimitMillis + " ms" :
+				"depth " + this.maxDepth;
+	}
+
+}
@@ -1,7 +1,10 @@
 package com.chess.engine.player.ai;
 
 import com.chess.engine.board.Board;
+import com.chess.engine.board.SearchBoard;
+import com.chess.engine.pieces.Color;
 import com.chess.engine.pieces.Piece;
+import com.chess.engine.pieces.Piece.PieceType;
 import com.chess.engine.player.Player;
 import com.chess.engine.player.ai.KingSafetyAnalyzer.KingDistance;
 
@@ -10,6 +13,7 @@ public final class StandardBoardEvaluator implements BoardEvaluator {
 	private final static int CHECK_BONUS = 20;
 	private final static int CASTLED_BONUS = 60;
 	private final static int CASTLE_CAPABLE_BONUS = 25;
+	private final static PieceType[] PIECE_TYPES = PieceType.values();
 	
 	@Override
 	public int evaluate(final Board board, final int depth) {
@@ -17,6 +21,51 @@ public final class StandardBoardEvaluator implements BoardEvaluator {
 				scorePlayer(board, board.blackPlayer(), depth);
 	}
 	
+	@Override
+	public int evaluate(final SearchBoard board, final int depth) {
+		return scorePlayer(board, Color.WHITE, Color.BLACK, depth) -
+				scorePlayer(board, Color.BLACK, Color.WHITE, depth);
+	}
+	
+	private static int scorePlayer(final SearchBoard board, final Color color,
+								   final Color opponent, final int depth) {
+		return board.countMoves(color) +
+			   (board.isInCheckMate(opponent) ? CHECK_MATE_BONUS * depthBonus(depth) : 0) +
+			   (board.isInCheck(opponent) ? CHECK_BONUS : 0) +
+			   (board.isCastled(color) ? CASTLED_BONUS : 0) +
+			   (board.isCastleCapable(color) ? CASTLE_CAPABLE_BONUS : 0) +
+			   pieceValueAndLocationBonus(board, color);
+	}
+	
+	private static int pieceValueAndLocationBonus(final SearchBoard board, final Color color) {
+		int pieceValuationScore = 0;
+		for (final PieceType pieceType : PIECE_TYPES) {
+			final int pieceCount = board.getPieceCount(color, pieceType);
+			for (int i = 0; i < pieceCount; i++) {
+				pieceValuationScore += pieceType.getPieceValue() +
+						locationBonus(color, pieceType, board.getPieceSquare(color, pieceType, i));
+			}
+		}
+		return pieceValuationScore;
+	}
+	
+	private static int locationBonus(final Color color, final PieceType pieceType, final int position) {
+		switch (pieceType) {
+			case PAWN:
+				return color.pawnBonus(position);
+			case KNIGHT:
+				return color.knightBonus(position);
+			case BISHOP:
+				return color.bishopBonus(position);
+			case ROOK:
+				return color.rookBonus(position);
+			case QUEEN:
+				return color.queenBonus(position);
+			default:
+				return color.kingBonus(position);
+		}
+	}
+	
 	private static int scorePlayer(final Board board, final Player player, final int depth) {
 		return mobility(player) + checkmate(player, depth) + check(player) +
 			   castled(player) + castleCapable(player) + pieceValueAndLocationBonus(player);
@@ -0,0 +1,124 @@
+package com.chess.engine.player.ai;
+
+import java.util.Arrays;
+
+import com.chess.engine.board.MoveEncoding;
+import com.chess.engine.board.SearchBoard;
+
+/**
+ * Fixed-size table of search results keyed by zobrist key. Entries are
+ * packed into a flat long array, two longs each:
+ * <pre>
+ *  long 0  zobrist key XOR long 1
+ *  long 1  bits  0-15  hash move (from, to and promotion type)
+ *          bits 16-47  score
+ *          bits 48-55  depth
+ *          bits 56-57  bound type
+ *          bits 58-63  age
+ * </pre>
+ * Each bucket holds a depth-preferred entry, replaced only by a search at
+ * least as deep or by a newer search, and an always-replace entry. Several
+ * threads may probe and store without locking: a probe only accepts an
+ * entry whose two longs XOR back to the key, so a torn or half-written
+ * entry reads as a miss.
+ */
+public final class TranspositionTable {
+	public static final long NO_ENTRY = 0L;
+	public static final int EXACT = 0;
+	public static final int LOWER_BOUND = 1;
+	public static final int UPPER_BOUND = 2;
+	private static final int LONGS_PER_ENTRY = 2;
+	private static final int LONGS_PER_BUCKET = 2 * LONGS_PER_ENTRY;
+	private static final int BYTES_PER_BUCKET = LONGS_PER_BUCKET * Long.BYTES;
+	private static final int AGE_MASK = 0x3F;
+	private static final int MAX_DEPTH = 0xFF;
+
+	private final long[] entries;
+	private final int bucketMask;
+	private int age;
+
+	public TranspositionTable(final int sizeInMegabytes) {
+		if (sizeInMegabytes < 1) {
+			throw new RuntimeException("Transposition table needs at least 1 MB");
+		}
+		final long buckets = Long.highestOneBit((long) sizeInMegabytes * 1024 * 1024 / BYTES_PER_BUCKET);
+		this.entries = new long[(int) Math.min(buckets * LONGS_PER_BUCKET, Integer.highestOneBit(Integer.MAX_VALUE))];
+		this.bucketMask = this.entries.length / LONGS_PER_BUCKET - 1;
+		this.age = 0;
+	}
+
+	/** Starts a new search, so entries stored by earlier ones give way to it. */
+	public void newSearch() {
+		this.age = (this.age + 1) & AGE_MASK;
+	}
+
+	public void clear() {
+		Arrays.fill(this.entries, 0L);
+	}
+
+	/** The stored entry for the key, or {@link #NO_ENTRY}. */
+	public long probe(final long key) {
+		final int bucket = bucketOf(key);
+		for (int slot = bucket; slot < bucket + LONGS_PER_BUCKET; slot += LONGS_PER_ENTRY) {
+			final long data = this.entries[slot + 1];
+			if (data != NO_ENTRY && (this.entries[slot] ^ data) == key) {
+				return data;
+			}
+		}
+		return NO_ENTRY;
+	}
+
+	public void store(final long key, final int move, final int score, final int depth, final int bound) {
+		final int bucket = bucketOf(key);
+		final long preferredData = this.entries[bucket + 1];
+		final boolean preferredIsSame = (this.entries[bucket] ^ preferredData) == key;
+		final int slot = preferredData == NO_ENTRY || preferredIsSame || depth >= getDepth(preferredData) ||
+				getAge(preferredData) != this.age ? bucket : bucket + LONGS_PER_ENTRY;
+		final int hashMove = move != MoveEncoding.NULL_MOVE ? compressMove(move) :
+				preferredIsSame ? getMove(preferredData) : 0;
+		final long data = (hashMove & 0xFFFFL) |
+				((score & 0xFFFFFFFFL) << 16) |
+				((long) Math.min(depth, MAX_DEPTH) << 48) |
+				((long) bound << 56) |
+				((long) this.age << 58);
+		this.entries[slot] = key ^ data;
+		this.entries[slot + 1] = data;
+	}
+
+	private int bucketOf(final long key) {
+		return ((int) (key >>> 32) & this.bucketMask) * LONGS_PER_BUCKET;
+	}
+
+	public static int getMove(final long entry) {
+		return (int) entry & 0xFFFF;
+	}
+
+	public static int getScore(final long entry) {
+		return (int) (entry >>> 16);
+	}
+
+	public static int getDepth(final long entry) {
+		return (int) (entry >>> 48) & MAX_DEPTH;
+	}
+
+	public static int getBound(final long entry) {
+		return (int) (entry >>> 56) & 0x3;
+	}
+
+	private static int getAge(final long entry) {
+		return (int) (entry >>> 58) & AGE_MASK;
+	}
+
+	/** The from square, to square and promotion type of a packed move, as stored in an entry. */
+	public static int compressMove(final int move) {
+		return MoveEncoding.getFrom(move) | (MoveEncoding.getTo(move) << 6) |
+			   (MoveEncoding.getPromotionType(move) << 12);
+	}
+
+	/** The move a compressed hash move stands for in this position, or {@link MoveEncoding#NULL_MOVE} if none. */
+	public static int expandMove(final SearchBoard board, final int compressedMove) {
+		return compressedMove == 0 ? MoveEncoding.NULL_MOVE :
+				board.findMove(compressedMove & 0x3F, (compressedMove >>> 6) & 0x3F, compressedMove >>> 12);
+	}
+
+}
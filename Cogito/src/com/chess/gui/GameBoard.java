@@ -42,9 +42,11 @@ import static javax.swing.JFrame.setDefaultLookAndFeelDecorated;
 import com.chess.engine.board.Board;
 import com.chess.engine.board.BoardUtils;
 import com.chess.engine.board.Move;
+import com.chess.engine.board.MoveRecord;
 import com.chess.engine.board.MoveTransition;
 import com.chess.engine.board.Tile;
 import com.chess.engine.pieces.Piece;
+import com.chess.engine.player.GameStatus;
 import com.chess.engine.player.ai.AlphaBetaWithMoveOrdering;
 import com.chess.engine.player.ai.MiniMax;
 
@@ -84,7 +86,7 @@ public final class GameBoard extends Observable {
 		this.takenPiecesPanel = new TakenPiecesPanel();
 		this.boardPanel = new BoardPanel();
 		this.debugPanel = new DebugPanel();
-		this.moveLog = new MoveLog();
+		this.moveLog = new MoveLog(this.chessBoard);
 		this.addObserver(new GameAIWatcher());
 		this.gameSetup = new GameSetup(this.gameFrame, true);
 		this.gameSetup.promptUser();
@@ -158,10 +160,9 @@ public final class GameBoard extends Observable {
 	}
 	
 	private void undoLastMove() {
-		final Move lastMove = GameBoard.get().getMoveLog().removeMove(GameBoard.get().getMoveLog().size()-1);
-		this.chessBoard = this.chessBoard.currentPlayer().unMakeMove(lastMove).getTransitionBoard();
+		GameBoard.get().getMoveLog().removeMove(GameBoard.get().getMoveLog().size()-1);
+		this.chessBoard = GameBoard.get().getMoveLog().replay();
 		this.computerMove = null;
-		GameBoard.get().getMoveLog().removeMove(lastMove);
 		GameBoard.get().getGameHistoryPanel().redo(chessBoard, GameBoard.get().getMoveLog());
 		GameBoard.get().getTakenPiecesPanel().redo(GameBoard.get().getMoveLog());
 		GameBoard.get().getBoardPanel().drawBoard(chessBoard);
@@ -169,10 +170,7 @@ public final class GameBoard extends Observable {
 	}
 	
 	private void undoAllMoves() {
-		for (int i = GameBoard.get().getMoveLog().size()-1; i >= 0; i--) {
-			final Move lastMove = GameBoard.get().getMoveLog().removeMove(GameBoard.get().getMoveLog().size()-1);
-			this.chessBoard = this.chessBoard.currentPlayer().unMakeMove(lastMove).getTransitionBoard();
-		}
+		this.chessBoard = GameBoard.get().getMoveLog().getInitialBoard();
 		this.computerMove = null;
 		GameBoard.get().getMoveLog().clear();
 		GameBoard.get().getGameHistoryPanel().redo(chessBoard, GameBoard.get().getMoveLog());
@@ -414,18 +412,20 @@ public final class GameBoard extends Observable {
 	}
 	
 	public static class MoveLog {
-		private final List<Move> moves;
+		private final Board initialBoard;
+		private final List<MoveRecord> moves;
 		
-		MoveLog() {
+		MoveLog(final Board initialBoard) {
+			this.initialBoard = initialBoard;
 			this.moves = new ArrayList<>();
 		}
 		
-		public List<Move> getMoves() {
+		public List<MoveRecord> getMoves() {
 			return this.moves;
 		}
 		
 		public void addMove(final Move move) {
-			this.moves.add(move);
+			this.moves.add(MoveRecord.of(move));
 		}
 		
 		public int size() {
@@ -436,12 +436,21 @@ public final class GameBoard extends Observable {
 			this.moves.clear();
 		}
 		
-		public Move removeMove(int index) {
+		public MoveRecord removeMove(int index) {
 			return this.moves.remove(index);
 		}
 		
-		public boolean removeMove(final Move move) {
-			return this.moves.remove(move);
+		public Board getInitialBoard() {
+			return this.initialBoard;
+		}
+		
+		/** Rebuilds the current position by replaying the log from the initial board. */
+		public Board replay() {
+			Board board = this.initialBoard;
+			for (final MoveRecord move : this.moves) {
+				board = move.replay(board).getTransitionBoard();
+			}
+			return board;
 		}
 	}
 	
@@ -454,25 +463,23 @@ public final class GameBoard extends Observable {
 		
 		@Override
 		public void update(final Observable o, final Object arg) {
+			final GameStatus gameStatus = GameBoard.get().getGameBoard().currentPlayer().getGameStatus();
 			if (GameBoard.get().getGameSetup().isAIPlayer(
 				GameBoard.get().getGameBoard().currentPlayer()) &&
-				!GameBoard.get().getGameBoard().currentPlayer().isInCheckMate() &&
-				!GameBoard.get().getGameBoard().currentPlayer().isInStaleMate()) {
+				!gameStatus.isGameOver()) {
 				System.out.println(GameBoard.get().getGameBoard().currentPlayer() +
 						" is set to AI, thinking...");
 				final AIThinkTank thinkTank = new AIThinkTank();
 				thinkTank.execute();
 			}
 			
-			if (GameBoard.get().getGameBoard().currentPlayer().isInCheckMate() ||
-				GameBoard.get().getGameBoard().currentPlayer().isInStaleMate()) {
+			if (gameStatus == GameStatus.CHECKMATE) {
 				JOptionPane.showMessageDialog(GameBoard.get().getBoardPanel(),
 						"Game Over: Player " + GameBoard.get().getGameBoard().currentPlayer() +
 						" is in checkmate!", "Game Over", JOptionPane.INFORMATION_MESSAGE);
 			}
 			
-			if (GameBoard.get().getGameBoard().currentPlayer().isInStaleMate() ||
-				GameBoard.get().getGameBoard().currentPlayer().isInStaleMate()) {
+			if (gameStatus == GameStatus.STALEMATE) {
 				JOptionPane.showMessageDialog(GameBoard.get().getBoardPanel(),
 						"Game Over: Player " + GameBoard.get().getGameBoard().currentPlayer() +
 						" is in stalemate!", "Game Over", JOptionPane.INFORMATION_MESSAGE);
@@ -496,7 +503,7 @@ public final class GameBoard extends Observable {
 			strategy.addObserver(GameBoard.get().getDebugPanel());
 			GameBoard.get().getGameBoard().currentPlayer().setMoveStrategy(strategy);
 			bestMove = GameBoard.get().getGameBoard().currentPlayer().getMoveStrategy().execute(
-					GameBoard.get().getGameBoard(), GameBoard.get().getGameSetup().getSearchDepth());
+					GameBoard.get().getGameBoard(), GameBoard.get().getGameSetup().getSearchLimits());
 			return bestMove;
 		}
 		
@@ -13,6 +13,7 @@ import javax.swing.table.DefaultTableModel;
 
 import com.chess.engine.board.Board;
 import com.chess.engine.board.Move;
+import com.chess.engine.board.MoveRecord;
 import com.chess.gui.GameBoard.MoveLog;
 
 public class GameHistoryPanel extends JPanel {
@@ -39,7 +40,7 @@ public class GameHistoryPanel extends JPanel {
 	void redo(final Board board, final MoveLog moveHistory) {
 		int currentRow = 0;
 		this.model.clear();
-		for (final Move move : moveHistory.getMoves()) {
+		for (final MoveRecord move : moveHistory.getMoves()) {
 			final String moveText = move.toString();
 			if (move.getMovedPiece().getPieceColor().isWhite()) {
 				this.model.setValueAt(moveText, currentRow, 0);
@@ -50,7 +51,7 @@ public class GameHistoryPanel extends JPanel {
 		}
 		
 		if (moveHistory.getMoves().size() > 0) {
-			final Move lastMove = moveHistory.getMoves().get(moveHistory.size()-1);
+			final MoveRecord lastMove = moveHistory.getMoves().get(moveHistory.size()-1);
 			final String moveText = lastMove.toString();
 			
 			if (lastMove.getMovedPiece().getPieceColor().isWhite()) {
@@ -18,6 +18,7 @@ import javax.swing.SpinnerNumberModel;
 
 import com.chess.engine.pieces.Color;
 import com.chess.engine.player.Player;
+import com.chess.engine.player.ai.SearchLimits;
 import com.chess.gui.GameBoard.PlayerType;
 
 public class GameSetup extends JDialog {
@@ -25,6 +26,7 @@ public class GameSetup extends JDialog {
 	private PlayerType whitePlayerType;
 	private PlayerType blackPlayerType;
 	private JSpinner searchDepthSpinner;
+	private JSpinner moveTimeSpinner;
 	private static final String HUMAN_TEXT = "Human";
 	private static final String COMPUTER_TEXT = "Computer";
 	
@@ -57,7 +59,9 @@ public class GameSetup extends JDialog {
 		
 		myPanel.add(new JLabel("Search"));
 		this.searchDepthSpinner = addLabeledSpinner(myPanel, "Search Depth",
-				new SpinnerNumberModel(6, 0, Integer.MAX_VALUE, 1));
+				new SpinnerNumberModel(6, 1, SearchLimits.MAX_DEPTH, 1));
+		this.moveTimeSpinner = addLabeledSpinner(myPanel, "Seconds Per Move (0 = fixed depth)",
+				new SpinnerNumberModel(0, 0, Integer.MAX_VALUE, 1));
 		
 		final JButton cancelButton = new JButton("Cancel");
 		final JButton okButton = new JButton("OK");
@@ -118,5 +122,14 @@ public class GameSetup extends JDialog {
 	int getSearchDepth() {
 		return (Integer) this.searchDepthSpinner.getValue();
 	}
+	
+	int getMoveTimeSeconds() {
+		return (Integer) this.moveTimeSpinner.getValue();
+	}
+	
+	SearchLimits getSearchLimits() {
+		return getMoveTimeSeconds() > 0 ? SearchLimits.moveTime(getMoveTimeSeconds() * 1000L) :
+				SearchLimits.depth(getSearchDepth());
+	}
 
 }
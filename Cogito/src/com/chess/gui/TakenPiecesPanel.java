@@ -17,7 +17,7 @@ import javax.swing.JLabel;
 import javax.swing.JPanel;
 import javax.swing.border.EtchedBorder;
 
-import com.chess.engine.board.Move;
+import com.chess.engine.board.MoveRecord;
 import com.chess.engine.pieces.Piece;
 import com.chess.gui.GameBoard.MoveLog;
 
@@ -51,9 +51,9 @@ public class TakenPiecesPanel extends JPanel {
 		final List<Piece> whiteTakenPieces = new ArrayList<>();
 		final List<Piece> blackTakenPieces = new ArrayList<>();
 		
-		for (final Move move : moveLog.getMoves()) {
-			if (move.isAttack()) {
-				final Piece takenPiece = move.getAttackedPiece();
+		for (final MoveRecord move : moveLog.getMoves()) {
+			if (move.isCapture()) {
+				final Piece takenPiece = move.getCapturedPiece();
 				if (takenPiece.getPieceColor().isWhite()) {
 					whiteTakenPieces.add(takenPiece);
 				} else {
@@ -0,0 +1,97 @@
+package com.chess.engine.board;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import com.chess.engine.board.Board.BoardBuilder;
+
+public class FenTest {
+
+	@Test
+	public void standardBoardRoundTrips() {
+		final Board board = Board.createStandardBoard();
+		assertEquals(Perft.START_POSITION, board.toFen());
+		assertEquals(board.zobristKey(), BoardBuilder.fromFen(board.toFen()).zobristKey());
+	}
+
+	@Test
+	public void fenFieldsRoundTrip() {
+		final String[] positions = { Perft.KIWIPETE, Perft.POSITION_3, Perft.POSITION_4, Perft.POSITION_5,
+				"rnbqkbnr/ppp1p1pp/8/3pPp2/8/8/PPPP1PPP/RNBQKBNR w KQkq f6 0 3",
+				"r3k2r/8/8/8/8/8/8/R3K2R b Kq - 42 60" };
+		for (final String fen : positions) {
+			assertEquals(fen, BoardBuilder.fromFen(fen).toFen());
+		}
+	}
+
+	@Test
+	public void castlingRightsBecomeFirstMoveFlags() {
+		final Board board = BoardBuilder.fromFen("r3k2r/8/8/8/8/8/8/R3K2R w Kq - 0 1");
+		assertTrue(board.getPiece(60).isFirstMove());
+		assertTrue(board.getPiece(63).isFirstMove());
+		assertFalse(board.getPiece(56).isFirstMove());
+		assertTrue(board.getPiece(0).isFirstMove());
+		assertFalse(board.getPiece(7).isFirstMove());
+		assertEquals(BoardUtils.WHITE_KING_SIDE | BoardUtils.BLACK_QUEEN_SIDE, board.getCastlingRights());
+	}
+
+	@Test
+	public void movesUpdateTheCounters() {
+		final Board board = BoardBuilder.fromFen("4k3/8/8/8/8/8/4P3/4K1N1 w - - 7 20");
+		final Board knightMoved = play(board, "g1", "f3");
+		assertEquals("4k3/8/8/8/8/5N2/4P3/4K3 b - - 8 20", knightMoved.toFen());
+		final Board kingMoved = play(knightMoved, "e8", "d8");
+		assertEquals(9, kingMoved.getHalfMoveClock());
+		assertEquals(21, kingMoved.getFullMoveNumber());
+		assertEquals("3k4/8/8/8/4P3/5N2/8/4K3 b - e3 0 21", play(kingMoved, "e2", "e4").toFen());
+	}
+
+	@Test(expected = RuntimeException.class)
+	public void rejectsShortPlacement() {
+		BoardBuilder.fromFen("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP w KQkq - 0 1");
+	}
+
+	@Test(expected = RuntimeException.class)
+	public void rejectsRanksThatDoNotHoldEightSquares() {
+		BoardBuilder.fromFen("rnbqkbnr/ppppppppp/7/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1");
+	}
+
+	@Test(expected = RuntimeException.class)
+	public void rejectsAShortRankMadeUpForLater() {
+		BoardBuilder.fromFen("rnbqkbnr/ppppppp/8/8/8/8/PPPPPPPPP/RNBQKBNR w KQkq - 0 1");
+	}
+
+	@Test(expected = RuntimeException.class)
+	public void rejectsUnknownCastlingRights() {
+		BoardBuilder.fromFen("r3k2r/8/8/8/8/8/8/R3K2R w KXq - 0 1");
+	}
+
+	@Test
+	public void rejectsEnPassantSquaresOffTheCaptureRank() {
+		assertRejectedEnPassant("4k3/8/8/8/8/8/8/4K3 w - a1 0 1");
+		assertRejectedEnPassant("4k3/8/8/8/8/8/8/4K3 b - h8 0 1");
+		assertRejectedEnPassant("4k3/8/8/8/8/4p3/8/4K3 w - e4 0 1");
+	}
+
+	@Test
+	public void rejectsAnEnPassantPawnOfTheSideToMove() {
+		assertRejectedEnPassant("4k3/8/8/3Pp3/8/8/8/4K3 w - d6 0 1");
+	}
+
+	private static void assertRejectedEnPassant(final String fen) {
+		try {
+			BoardBuilder.fromFen(fen);
+			fail(fen);
+		} catch (final RuntimeException e) {
+			assertEquals("Not a valid en passant square in FEN: " + fen, e.getMessage());
+		}
+	}
+
+	private static Board play(final Board board, final String from, final String to) {
+		final Move move = Move.MoveFactory.createMove(board, BoardUtils.getCoordinateAtPosition(from),
+				BoardUtils.getCoordinateAtPosition(to));
+		return board.currentPlayer().makeMove(move).getTransitionBoard();
+	}
+
+}
@@ -0,0 +1,110 @@
+package com.chess.engine.board;
+
+import static org.junit.Assert.*;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Test;
+
+import com.chess.engine.board.Board.BoardBuilder;
+
+public class LegalMoveGenerationTest {
+
+	@Test
+	public void pinnedPieceStaysOnItsPinLine() {
+		final Board board = BoardBuilder.fromFen("4k3/4r3/8/8/8/8/4R3/4K3 w - - 0 1");
+		assertTrue(hasMove(board, "e2", "e7"));
+		assertTrue(hasMove(board, "e2", "e5"));
+		assertFalse(hasMove(board, "e2", "d2"));
+		final Board knightPinned = BoardBuilder.fromFen("4k3/4r3/8/8/8/8/4N3/4K3 w - - 0 1");
+		assertEquals(4, knightPinned.currentPlayer().getLegalMoves().size());
+	}
+
+	@Test
+	public void singleCheckIsBlockedOrCaptured() {
+		final Board board = BoardBuilder.fromFen("4k3/8/8/8/1b6/8/8/RN2K3 w Q - 0 1");
+		assertTrue(hasMove(board, "b1", "c3"));
+		assertTrue(hasMove(board, "b1", "d2"));
+		assertFalse(hasMove(board, "b1", "a3"));
+		assertFalse(hasMove(board, "a1", "a2"));
+		assertFalse(hasMove(board, "e1", "c1"));
+		for (final Move move : board.currentPlayer().getLegalMoves()) {
+			assertTrue(move.toString(), board.currentPlayer().makeMove(move).getMoveStatus().isDone());
+		}
+	}
+
+	@Test
+	public void doubleCheckAllowsOnlyKingMoves() {
+		final Board board = BoardBuilder.fromFen("4k3/8/8/8/8/5n2/3R4/r3K3 w - - 0 1");
+		for (final Move move : board.currentPlayer().getLegalMoves()) {
+			assertTrue(move.toString(), move.getMovedPiece().getPieceType().isKing());
+		}
+	}
+
+	@Test
+	public void enPassantCannotExposeTheKingAlongTheRank() {
+		final Board board = BoardBuilder.fromFen("8/8/8/K2pP2r/8/8/8/7k w - d6 0 1");
+		assertFalse(hasMove(board, "e5", "d6"));
+		assertTrue(hasMove(board, "e5", "e6"));
+	}
+
+	@Test
+	public void searchBoardEvasionsMatchLegalMoves() {
+		final String[] positions = { "4k3/8/8/8/1b6/8/8/RN2K3 w Q - 0 1", "4k3/8/8/8/8/5n2/3R4/r3K3 w - - 0 1",
+				"8/8/8/2k5/3Pp3/8/8/4K3 b - d3 0 1", "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1" };
+		for (final String fen : positions) {
+			final Board board = BoardBuilder.fromFen(fen);
+			final SearchBoard searchBoard = new SearchBoard(board);
+			final MoveList moves = new MoveList();
+			searchBoard.generateMoves(moves);
+			int legalMoves = 0;
+			for (int i = 0; i < moves.size(); i++) {
+				if (searchBoard.makeMove(moves.get(i))) {
+					searchBoard.unmakeMove();
+					legalMoves++;
+				}
+			}
+			assertEquals(fen, board.currentPlayer().getLegalMoves().size(), legalMoves);
+		}
+	}
+
+	@Test
+	public void capturesAndQuietMovesPartitionAllMoves() {
+		final String[] positions = { Perft.KIWIPETE, "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 b kq - 0 1",
+				"rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8", "8/k7/8/8/3Pp3/8/8/4K3 b - d3 0 1" };
+		for (final String fen : positions) {
+			final SearchBoard searchBoard = new SearchBoard(BoardBuilder.fromFen(fen));
+			final MoveList all = new MoveList();
+			final MoveList captures = new MoveList();
+			final MoveList quiets = new MoveList();
+			searchBoard.generateMoves(all);
+			searchBoard.generateCaptures(captures);
+			searchBoard.generateQuietMoves(quiets);
+			final Set<Integer> staged = new HashSet<>();
+			for (int i = 0; i < captures.size(); i++) {
+				assertTrue(fen, MoveEncoding.isCapture(captures.get(i)) || MoveEncoding.isPromotion(captures.get(i)));
+				staged.add(captures.get(i));
+			}
+			for (int i = 0; i < quiets.size(); i++) {
+				assertFalse(fen, MoveEncoding.isCapture(quiets.get(i)) || MoveEncoding.isPromotion(quiets.get(i)));
+				staged.add(quiets.get(i));
+			}
+			assertEquals(fen, all.size(), captures.size() + quiets.size());
+			for (int i = 0; i < all.size(); i++) {
+				final int move = all.get(i);
+				assertTrue(fen, staged.contains(move));
+				assertEquals(fen, move, searchBoard.findMove(MoveEncoding.getFrom(move), MoveEncoding.getTo(move),
+						MoveEncoding.getPromotionType(move)));
+			}
+			assertEquals(MoveEncoding.NULL_MOVE, searchBoard.findMove(BoardUtils.getCoordinateAtPosition("a1"),
+					BoardUtils.getCoordinateAtPosition("h8"), 0));
+		}
+	}
+
+	private static boolean hasMove(final Board board, final String from, final String to) {
+		return Move.MoveFactory.createMove(board, BoardUtils.getCoordinateAtPosition(from),
+				BoardUtils.getCoordinateAtPosition(to)) != Move.NULL_MOVE;
+	}
+
+}
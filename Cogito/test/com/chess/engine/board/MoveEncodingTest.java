@@ -0,0 +1,32 @@
+package com.chess.engine.board;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import com.chess.engine.pieces.Piece.PieceType;
+
+public class MoveEncodingTest {
+
+	@Test
+	public void packedFieldsRoundTrip() {
+		final int move = MoveEncoding.create(12, 4, MoveEncoding.PROMOTION_CAPTURE, 6, 9, PieceType.QUEEN.ordinal());
+		assertEquals(12, MoveEncoding.getFrom(move));
+		assertEquals(4, MoveEncoding.getTo(move));
+		assertEquals(MoveEncoding.PROMOTION_CAPTURE, MoveEncoding.getFlags(move));
+		assertEquals(6, MoveEncoding.getMovedPiece(move));
+		assertEquals(9, MoveEncoding.getCapturedPiece(move));
+		assertEquals(PieceType.QUEEN.ordinal(), MoveEncoding.getPromotionType(move));
+		assertTrue(MoveEncoding.isCapture(move) && MoveEncoding.isPromotion(move));
+	}
+
+	@Test
+	public void legalMovesSurviveTheAdapter() {
+		final Board board = Board.createStandardBoard();
+		for (final Move move : board.currentPlayer().getLegalMoves()) {
+			assertEquals("Adapter changed " + move, move,
+					MoveEncoding.toMove(board, MoveEncoding.encode(move)));
+		}
+	}
+
+}
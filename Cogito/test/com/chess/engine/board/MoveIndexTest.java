@@ -0,0 +1,37 @@
+package com.chess.engine.board;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import com.chess.engine.board.Board.BoardBuilder;
+import com.chess.engine.board.Move.PawnPromotion;
+import com.chess.engine.pieces.Piece.PieceType;
+
+public class MoveIndexTest {
+
+	@Test
+	public void everyLegalMoveIsIndexed() {
+		final Board board = BoardBuilder.fromFen(Perft.POSITION_4);
+		final MoveIndex index = new MoveIndex(board.currentPlayer().getLegalMoves());
+		for (final Move move : board.currentPlayer().getLegalMoves()) {
+			assertSame(move, index.get(move));
+			assertTrue(board.currentPlayer().isMoveLegal(MoveEncoding.toMove(board, MoveEncoding.encode(move))));
+		}
+		assertNull(index.get(Move.NULL_MOVE));
+	}
+
+	@Test
+	public void fromToLookupPrefersQueenPromotion() {
+		final Board board = BoardBuilder.fromFen(Perft.POSITION_5);
+		final Move promotion = Move.MoveFactory.createMove(board, BoardUtils.getCoordinateAtPosition("d7"),
+				BoardUtils.getCoordinateAtPosition("c8"));
+		assertTrue(promotion instanceof PawnPromotion);
+		assertEquals(PieceType.QUEEN, ((PawnPromotion) promotion).getPromotionType());
+		assertSame(Move.NULL_MOVE, Move.MoveFactory.createMove(board, BoardUtils.getCoordinateAtPosition("d7"),
+				BoardUtils.getCoordinateAtPosition("d8")));
+		assertSame(Move.NULL_MOVE, Move.MoveFactory.createMove(board, BoardUtils.getCoordinateAtPosition("e1"),
+				BoardUtils.getCoordinateAtPosition("e3")));
+	}
+
+}
@@ -0,0 +1,34 @@
+package com.chess.engine.board;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import com.chess.engine.board.Board.BoardBuilder;
+
+public class MoveRecordTest {
+
+	@Test
+	public void replayingRecordsRebuildsThePosition() {
+		final Board initialBoard = BoardBuilder.fromFen(Perft.KIWIPETE);
+		Board board = initialBoard;
+		final MoveRecord[] records = new MoveRecord[4];
+		final String[][] moves = { { "e1", "c1" }, { "h3", "g2" }, { "e5", "f7" }, { "g2", "h1" } };
+		for (int i = 0; i < moves.length; i++) {
+			final Move move = Move.MoveFactory.createMove(board, BoardUtils.getCoordinateAtPosition(moves[i][0]),
+					BoardUtils.getCoordinateAtPosition(moves[i][1]));
+			records[i] = MoveRecord.of(move);
+			assertEquals(move.toString(), records[i].toString());
+			board = board.currentPlayer().makeMove(move).getTransitionBoard();
+		}
+		assertTrue(records[1].isCapture());
+		assertFalse(records[0].isCapture());
+		Board replayed = initialBoard;
+		for (final MoveRecord record : records) {
+			replayed = record.replay(replayed).getTransitionBoard();
+		}
+		assertEquals(board.zobristKey(), replayed.zobristKey());
+		assertEquals(board.toFen(), replayed.toFen());
+	}
+
+}
@@ -0,0 +1,50 @@
+package com.chess.engine.board;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import com.chess.engine.board.Board.BoardBuilder;
+
+public class PackedPositionTest {
+
+	@Test
+	public void packingRoundTripsThroughBytes() {
+		final String[] positions = { Perft.START_POSITION, Perft.KIWIPETE, Perft.POSITION_3, Perft.POSITION_4,
+				Perft.POSITION_5, "rnbqkbnr/ppp1p1pp/8/3pPp2/8/8/PPPP1PPP/RNBQKBNR w KQkq f6 0 3",
+				"4k3/8/8/8/3Pp3/8/8/4K3 b - d3 12 57" };
+		for (final String fen : positions) {
+			final PackedPosition packed = PackedPosition.of(BoardBuilder.fromFen(fen));
+			final byte[] bytes = packed.toBytes();
+			assertEquals(PackedPosition.BYTES, bytes.length);
+			final PackedPosition unpacked = PackedPosition.fromBytes(bytes);
+			assertEquals(packed, unpacked);
+			assertEquals(packed.hashCode(), unpacked.hashCode());
+			assertEquals(fen, unpacked.toBoard().toFen());
+		}
+	}
+
+	@Test
+	public void positionsReachedByPlayPackLikeTheirFen() {
+		Board board = Board.createStandardBoard();
+		for (int ply = 0; ply < 40 && !board.currentPlayer().getGameStatus().isGameOver(); ply++) {
+			final PackedPosition packed = PackedPosition.of(board);
+			assertEquals(PackedPosition.of(BoardBuilder.fromFen(board.toFen())), packed);
+			assertEquals(board.zobristKey(), packed.toBoard().zobristKey());
+			final Move move = board.currentPlayer().getLegalMoves().iterator().next();
+			board = board.currentPlayer().makeMove(move).getTransitionBoard();
+		}
+	}
+
+	@Test
+	public void differentPositionsPackDifferently() {
+		final PackedPosition white = PackedPosition.of(BoardBuilder.fromFen("4k3/8/8/8/8/8/8/4K3 w - - 0 1"));
+		final PackedPosition black = PackedPosition.of(BoardBuilder.fromFen("4k3/8/8/8/8/8/8/4K3 b - - 0 1"));
+		assertNotEquals(white, black);
+		final byte[] records = new byte[2 * PackedPosition.BYTES];
+		white.writeTo(records, 0);
+		black.writeTo(records, PackedPosition.BYTES);
+		assertEquals(black, PackedPosition.fromBytes(records, PackedPosition.BYTES));
+	}
+
+}
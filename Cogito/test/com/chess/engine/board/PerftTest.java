@@ -0,0 +1,53 @@
+package com.chess.engine.board;
+
+import static org.junit.Assert.*;
+
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.chess.engine.board.Board.BoardBuilder;
+
+public class PerftTest {
+
+	@Test
+	public void startPosition() {
+		final Board board = BoardBuilder.fromFen(Perft.START_POSITION);
+		assertEquals(20, Perft.perft(board, 1));
+		assertEquals(400, Perft.perft(board, 2));
+		assertEquals(8902, Perft.perft(board, 3));
+		assertEquals(197281, Perft.perft(board, 4));
+	}
+
+	@Test
+	public void kiwipeteCastlesAndEnPassant() {
+		final Board board = BoardBuilder.fromFen(Perft.KIWIPETE);
+		assertEquals(48, Perft.perft(board, 1));
+		assertEquals(2039, Perft.perft(board, 2));
+		assertEquals(97862, Perft.perft(board, 3));
+	}
+
+	@Test
+	public void enPassantDiscoveredChecks() {
+		assertEquals(43238, Perft.perft(BoardBuilder.fromFen(Perft.POSITION_3), 4));
+	}
+
+	@Test
+	public void promotionsIncludeUnderPromotions() {
+		assertEquals(9467, Perft.perft(BoardBuilder.fromFen(Perft.POSITION_4), 3));
+		assertEquals(44, Perft.perft(BoardBuilder.fromFen(Perft.POSITION_5), 1));
+		assertEquals(62379, Perft.perft(BoardBuilder.fromFen(Perft.POSITION_5), 3));
+	}
+
+	@Test
+	public void parallelAndDivideAgreeWithPerft() {
+		final Board board = BoardBuilder.fromFen(Perft.KIWIPETE);
+		assertEquals(2039, Perft.parallelPerft(board, 2, 2));
+		long total = 0;
+		for (final Map.Entry<String, Long> entry : Perft.divide(board, 2).entrySet()) {
+			total += entry.getValue();
+		}
+		assertEquals(2039, total);
+	}
+
+}
@@ -0,0 +1,55 @@
+package com.chess.engine.board;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import com.chess.engine.board.Board.BoardBuilder;
+import com.chess.engine.pieces.Color;
+import com.chess.engine.pieces.Piece;
+import com.chess.engine.pieces.Piece.PieceType;
+
+public class PieceListTest {
+
+	@Test
+	public void boardListsPiecesByColorAndType() {
+		final Board board = Board.createStandardBoard();
+		assertEquals(8, board.getPieces(Color.WHITE, PieceType.PAWN).size());
+		assertEquals(2, board.getPieces(Color.BLACK, PieceType.ROOK).size());
+		for (final Piece rook : board.getPieces(Color.BLACK, PieceType.ROOK)) {
+			assertTrue(rook.getPieceType().isRook() && rook.getPieceColor().isBlack());
+		}
+		assertEquals(60, board.getKingSquare(Color.WHITE));
+		assertEquals(4, board.getKingSquare(Color.BLACK));
+		assertEquals(60, board.whitePlayer().getPlayerKing().getPiecePosition());
+	}
+
+	@Test
+	public void searchBoardListsFollowMakeAndUnmake() {
+		final SearchBoard board = new SearchBoard(BoardBuilder.fromFen(Perft.KIWIPETE));
+		final MoveList moves = new MoveList();
+		board.generateMoves(moves);
+		for (int i = 0; i < moves.size(); i++) {
+			if (board.makeMove(moves.get(i))) {
+				assertListsMatchBitBoards(board);
+				board.unmakeMove();
+			}
+			assertListsMatchBitBoards(board);
+		}
+	}
+
+	private static void assertListsMatchBitBoards(final SearchBoard board) {
+		for (final Color color : Color.values()) {
+			for (final PieceType pieceType : PieceType.values()) {
+				long squares = 0;
+				for (int i = 0; i < board.getPieceCount(color, pieceType); i++) {
+					squares |= BoardUtils.squareMask(board.getPieceSquare(color, pieceType, i));
+				}
+				assertEquals(board.getPieceBitBoard(color, pieceType), squares);
+			}
+			assertEquals(board.getPieceBitBoard(color, PieceType.KING),
+					BoardUtils.squareMask(board.getKingSquare(color)));
+		}
+	}
+
+}
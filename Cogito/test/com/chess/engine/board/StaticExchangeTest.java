@@ -0,0 +1,42 @@
+package com.chess.engine.board;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import com.chess.engine.board.Board.BoardBuilder;
+
+public class StaticExchangeTest {
+
+	@Test
+	public void undefendedPieceIsWonOutright() {
+		assertEquals(100, exchange("4k3/8/8/3p4/8/8/8/3RK3 w - - 0 1", "d1", "d5"));
+	}
+
+	@Test
+	public void capturingADefendedPawnWithARookLosesTheExchange() {
+		assertEquals(-400, exchange("4k3/8/4p3/3p4/8/8/8/3RK3 w - - 0 1", "d1", "d5"));
+		assertEquals(100, exchange("4k3/8/4p3/3p4/4P3/8/8/3RK3 w - - 0 1", "e4", "d5"));
+	}
+
+	@Test
+	public void sliderBehindTheCapturerJoinsIn() {
+		assertEquals(100, exchange("3rk3/8/8/3p4/8/8/3R4/3RK3 w - - 0 1", "d2", "d5"));
+		assertEquals(-400, exchange("3rk3/3r4/8/3p4/8/8/3R4/4K3 w - - 0 1", "d2", "d5"));
+	}
+
+	@Test
+	public void enPassantTakesThePassedPawn() {
+		assertEquals(100, exchange("4k3/8/8/3pP3/8/8/8/4K3 w - d6 0 1", "e5", "d6"));
+	}
+
+	private static int exchange(final String fen, final String from, final String to) {
+		final SearchBoard board = new SearchBoard(BoardBuilder.fromFen(fen));
+		final int move = board.findMove(BoardUtils.getCoordinateAtPosition(from),
+				BoardUtils.getCoordinateAtPosition(to), 0);
+		assertNotEquals(from + to, MoveEncoding.NULL_MOVE, move);
+		assertTrue(from + to, MoveEncoding.isCapture(move));
+		return board.staticExchange(move);
+	}
+
+}
@@ -0,0 +1,62 @@
+package com.chess.engine.board;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class ZobristTest {
+
+	@Test
+	public void transposedMoveOrdersGiveTheSameKey() {
+		final Board board = Board.createStandardBoard();
+		final Board first = play(board, "g1", "f3", "b8", "c6", "b1", "c3");
+		final Board second = play(board, "b1", "c3", "b8", "c6", "g1", "f3");
+		assertEquals("Transposed positions have different keys", first.zobristKey(), second.zobristKey());
+	}
+
+	@Test
+	public void sideToMoveChangesTheKey() {
+		final Board board = Board.createStandardBoard();
+		final Board knightsOut = play(board, "g1", "f3", "g8", "f6");
+		final Board knightsBack = play(knightsOut, "f3", "g1", "f6", "g8");
+		assertEquals("Repeated position has a different key", board.zobristKey(), knightsBack.zobristKey());
+		assertNotEquals("Side to move is not part of the key", knightsOut.zobristKey(),
+				play(knightsOut, "f3", "g1").zobristKey());
+	}
+
+	@Test
+	public void undoRestoresTheKey() {
+		final Board board = play(Board.createStandardBoard(), "e2", "e4");
+		final Move move = Move.MoveFactory.createMove(board,
+				BoardUtils.getCoordinateAtPosition("e7"), BoardUtils.getCoordinateAtPosition("e5"));
+		assertEquals("Undo did not restore the key", board.zobristKey(), move.undo().zobristKey());
+	}
+
+	@Test
+	public void nullMoveFlipsTheSideAndIsUndone() {
+		final Board board = play(Board.createStandardBoard(), "e2", "e4");
+		final SearchBoard searchBoard = new SearchBoard(board);
+		searchBoard.makeNullMove();
+		assertEquals(board.zobristKey() ^ Zobrist.sideKey() ^ Zobrist.enPassantKey(BoardUtils.getCoordinateAtPosition("e3")),
+				searchBoard.zobristKey());
+		assertTrue(searchBoard.currentColor().isWhite());
+		searchBoard.unmakeNullMove();
+		assertEquals(board.zobristKey(), searchBoard.zobristKey());
+		assertTrue(searchBoard.currentColor().isBlack());
+		assertTrue(searchBoard.hasNonPawnMaterial());
+	}
+
+	private static Board play(final Board board, final String... positions) {
+		Board current = board;
+		for (int i = 0; i < positions.length; i += 2) {
+			final Move move = Move.MoveFactory.createMove(current,
+					BoardUtils.getCoordinateAtPosition(positions[i]),
+					BoardUtils.getCoordinateAtPosition(positions[i + 1]));
+			final MoveTransition transition = current.currentPlayer().makeMove(move);
+			assertTrue("Illegal move " + positions[i] + positions[i + 1], transition.getMoveStatus().isDone());
+			current = transition.getTransitionBoard();
+		}
+		return current;
+	}
+
+}
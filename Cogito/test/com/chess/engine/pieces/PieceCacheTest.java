@@ -0,0 +1,39 @@
+package com.chess.engine.pieces;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.board.Move;
+import com.chess.engine.board.Tile;
+import com.chess.engine.pieces.Piece.PieceType;
+
+public class PieceCacheTest {
+
+	@Test
+	public void movedPiecesComeFromTheCache() {
+		final Board board = Board.createStandardBoard();
+		final Move move = Move.MoveFactory.createMove(board, BoardUtils.getCoordinateAtPosition("g1"),
+				BoardUtils.getCoordinateAtPosition("f3"));
+		final Board afterMove = board.currentPlayer().makeMove(move).getTransitionBoard();
+		final Piece knight = afterMove.getTile(BoardUtils.getCoordinateAtPosition("f3")).getPiece();
+		assertSame(PieceCache.get(PieceType.KNIGHT, Color.WHITE, BoardUtils.getCoordinateAtPosition("f3"), true), knight);
+		assertSame(knight, PieceCache.getPiece(PieceCache.slotOf(knight)));
+	}
+
+	@Test
+	public void occupiedTilesAreShared() {
+		final Board first = Board.createStandardBoard();
+		final Board second = Board.createStandardBoard();
+		for (int i = 0; i < BoardUtils.NUM_TILES; i++) {
+			assertSame(first.getTile(i), second.getTile(i));
+		}
+		final Piece rook = new Rook(0, Color.BLACK, true);
+		final Tile tile = Tile.createTile(0, rook);
+		assertSame(rook, tile.getPiece());
+		assertNotSame(tile, first.getTile(0));
+	}
+
+}
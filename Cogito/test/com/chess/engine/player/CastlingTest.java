@@ -0,0 +1,50 @@
+package com.chess.engine.player;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Board.BoardBuilder;
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.board.Move;
+import com.chess.engine.pieces.Color;
+import com.chess.engine.pieces.King;
+import com.chess.engine.pieces.Pawn;
+import com.chess.engine.pieces.Rook;
+
+public class CastlingTest {
+
+	@Test
+	public void whiteCanCastleKingSide() {
+		final Board board = createBoard(BoardUtils.getCoordinateAtPosition("a7"));
+		assertTrue("King side castle missing", hasCastle(board.whitePlayer()));
+	}
+
+	@Test
+	public void whiteCannotCastleThroughPawnAttack() {
+		// the black pawn on g2 attacks f1 without being able to move there
+		final Board board = createBoard(BoardUtils.getCoordinateAtPosition("g2"));
+		assertFalse("King castled through an attacked square", hasCastle(board.whitePlayer()));
+	}
+
+	private static Board createBoard(final int blackPawnCoordinate) {
+		final BoardBuilder builder = new BoardBuilder();
+		builder.setPiece(new King(BoardUtils.getCoordinateAtPosition("e8"), Color.BLACK, false, false));
+		builder.setPiece(new Pawn(blackPawnCoordinate, Color.BLACK, false));
+		builder.setPiece(new King(BoardUtils.getCoordinateAtPosition("e1"), Color.WHITE, true, false));
+		builder.setPiece(new Rook(BoardUtils.getCoordinateAtPosition("h1"), Color.WHITE, true));
+		builder.setMoveMaker(Color.WHITE);
+		return builder.build();
+	}
+
+	private static boolean hasCastle(final Player player) {
+		for (final Move move : player.getLegalMoves()) {
+			if (move.isCastlingMove()) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+}
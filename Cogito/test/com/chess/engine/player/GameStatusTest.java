@@ -0,0 +1,49 @@
+package com.chess.engine.player;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Board.BoardBuilder;
+import com.chess.engine.board.Move;
+import com.chess.engine.board.Perft;
+
+public class GameStatusTest {
+
+	@Test
+	public void foolsMateIsCheckmate() {
+		final Board board = BoardBuilder.fromFen("rnb1kbnr/pppp1ppp/8/4p3/6Pq/5P2/PPPPP2P/RNBQKBNR w KQkq - 1 3");
+		assertEquals(GameStatus.CHECKMATE, board.currentPlayer().getGameStatus());
+		assertTrue(board.currentPlayer().isInCheckMate());
+		assertFalse(board.currentPlayer().isInStaleMate());
+	}
+
+	@Test
+	public void cornerKingWithoutMovesIsStalemate() {
+		final Board board = BoardBuilder.fromFen("7k/5Q2/6K1/8/8/8/8/8 b - - 0 1");
+		assertEquals(GameStatus.STALEMATE, board.currentPlayer().getGameStatus());
+		assertTrue(board.currentPlayer().isInStaleMate());
+	}
+
+	@Test
+	public void checkWithEscapesIsStillInPlay() {
+		final Board board = BoardBuilder.fromFen("4k3/8/8/8/8/8/4r3/4K3 w - - 0 1");
+		assertEquals(GameStatus.CHECK, board.currentPlayer().getGameStatus());
+		assertFalse(board.currentPlayer().getGameStatus().isGameOver());
+		assertEquals(GameStatus.IN_PLAY, Board.createStandardBoard().currentPlayer().getGameStatus());
+	}
+
+	@Test
+	public void bitBoardLegalityAgreesWithMakeMove() {
+		final String[] positions = { Perft.KIWIPETE, Perft.POSITION_3, Perft.POSITION_4, Perft.POSITION_5 };
+		for (final String fen : positions) {
+			final Board board = BoardBuilder.fromFen(fen);
+			for (final Move move : board.currentPlayer().getLegalMoves()) {
+				assertEquals(move.toString(), !board.currentPlayer().makeMove(move).getMoveStatus().isDone(),
+						board.leavesKingInCheck(move));
+			}
+		}
+	}
+
+}
@@ -0,0 +1,45 @@
+package com.chess.engine.player.ai;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.board.MoveEncoding;
+import com.chess.engine.pieces.Color;
+import com.chess.engine.pieces.Piece.PieceType;
+
+public class MoveHistoryTest {
+	private static final int KNIGHT_MOVE = MoveEncoding.create(62, 45, MoveEncoding.QUIET,
+			BoardUtils.pieceIndex(Color.WHITE, PieceType.KNIGHT));
+	private static final int PAWN_MOVE = MoveEncoding.create(52, 44, MoveEncoding.QUIET,
+			BoardUtils.pieceIndex(Color.WHITE, PieceType.PAWN));
+	private static final int BISHOP_MOVE = MoveEncoding.create(61, 34, MoveEncoding.QUIET,
+			BoardUtils.pieceIndex(Color.WHITE, PieceType.BISHOP));
+
+	@Test
+	public void killersKeepTheTwoNewestCutOffsPerPly() {
+		final MoveHistory history = new MoveHistory();
+		history.storeCutOff(3, KNIGHT_MOVE, 4);
+		history.storeCutOff(3, PAWN_MOVE, 4);
+		history.storeCutOff(3, PAWN_MOVE, 4);
+		assertEquals(2, history.killerRank(3, PAWN_MOVE));
+		assertEquals(1, history.killerRank(3, KNIGHT_MOVE));
+		assertEquals(0, history.killerRank(4, PAWN_MOVE));
+		history.storeCutOff(3, BISHOP_MOVE, 4);
+		assertEquals(0, history.killerRank(3, KNIGHT_MOVE));
+	}
+
+	@Test
+	public void historyGrowsWithDepthAndFadesBetweenSearches() {
+		final MoveHistory history = new MoveHistory();
+		history.storeCutOff(2, KNIGHT_MOVE, 3);
+		history.storeCutOff(5, KNIGHT_MOVE, 1);
+		assertEquals(10, history.getHistory(KNIGHT_MOVE));
+		assertEquals(0, history.getHistory(PAWN_MOVE));
+		history.newSearch();
+		assertEquals(5, history.getHistory(KNIGHT_MOVE));
+		assertEquals(0, history.killerRank(2, KNIGHT_MOVE));
+	}
+
+}
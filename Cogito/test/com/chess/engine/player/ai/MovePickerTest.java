@@ -0,0 +1,161 @@
+package com.chess.engine.player.ai;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+
+import com.chess.engine.board.Board.BoardBuilder;
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.board.MoveEncoding;
+import com.chess.engine.board.MoveList;
+import com.chess.engine.board.Perft;
+import com.chess.engine.board.SearchBoard;
+import com.chess.engine.pieces.Piece.PieceType;
+
+public class MovePickerTest {
+	private static final String IN_CHECK = "4k3/8/8/8/1b6/8/8/RN2K3 w Q - 0 1";
+	private static final String PROMOTIONS = "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 b kq - 0 1";
+
+	@Test
+	public void everyMoveComesOutOnceWithHashAndKillersSet() {
+		for (final String fen : new String[] { Perft.KIWIPETE, PROMOTIONS, IN_CHECK }) {
+			final SearchBoard board = new SearchBoard(BoardBuilder.fromFen(fen));
+			final int[] all = allMoves(board);
+			final int capture = firstMove(all, true);
+			final int quiet = firstMove(all, false);
+			final int lastQuiet = lastQuietMove(all);
+			assertDrainsExactly(fen, board, all, capture, quiet, lastQuiet);
+			assertDrainsExactly(fen, board, all, quiet, quiet, lastQuiet);
+			assertDrainsExactly(fen, board, all, MoveEncoding.NULL_MOVE, MoveEncoding.NULL_MOVE, MoveEncoding.NULL_MOVE);
+		}
+	}
+
+	@Test
+	public void hashMoveAndKillersComeFirst() {
+		final SearchBoard board = new SearchBoard(BoardBuilder.fromFen(Perft.KIWIPETE));
+		final int hashMove = move(board, "e5", "f7");
+		final int killer = move(board, "a2", "a3");
+		final List<Integer> drained = drain(board, hashMove, killer, MoveEncoding.NULL_MOVE, false);
+		assertEquals(Integer.valueOf(hashMove), drained.get(0));
+		int firstQuiet = 1;
+		while (MoveEncoding.isCapture(drained.get(firstQuiet))) {
+			firstQuiet++;
+		}
+		assertEquals(Integer.valueOf(killer), drained.get(firstQuiet));
+	}
+
+	@Test
+	public void underPromotionsAndLosingCapturesComeLast() {
+		for (final String fen : new String[] { Perft.KIWIPETE, PROMOTIONS }) {
+			final SearchBoard board = new SearchBoard(BoardBuilder.fromFen(fen));
+			final List<Integer> drained = drain(board, MoveEncoding.NULL_MOVE, MoveEncoding.NULL_MOVE,
+					MoveEncoding.NULL_MOVE, false);
+			int lastQuiet = -1;
+			for (int i = 0; i < drained.size(); i++) {
+				if (!MoveEncoding.isCapture(drained.get(i)) && !MoveEncoding.isPromotion(drained.get(i))) {
+					lastQuiet = i;
+				}
+			}
+			int deferred = 0;
+			for (int i = 0; i < drained.size(); i++) {
+				final int move = drained.get(i);
+				final boolean isDeferred = isUnderPromotion(move) ||
+						(MoveEncoding.isCapture(move) && board.staticExchange(move) < 0);
+				assertEquals(fen + " " + MoveEncoding.toString(move), isDeferred, i > lastQuiet);
+				deferred += isDeferred ? 1 : 0;
+			}
+			assertTrue(fen, deferred > 0);
+			final List<Integer> quiescence = drain(board, MoveEncoding.NULL_MOVE, MoveEncoding.NULL_MOVE,
+					MoveEncoding.NULL_MOVE, true);
+			for (final int move : quiescence) {
+				assertFalse(fen, MoveEncoding.isCapture(move) && !isUnderPromotion(move) && board.staticExchange(move) < 0);
+			}
+		}
+	}
+
+	@Test
+	public void cutOffOnACaptureNeverGeneratesQuietMoves() {
+		final SearchBoard board = new SearchBoard(BoardBuilder.fromFen(Perft.KIWIPETE));
+		final MovePicker picker = new MovePicker();
+		picker.reset(board, new MoveHistory(), 0, false, false);
+		assertTrue(MoveEncoding.isCapture(picker.nextMove()));
+		assertTrue(MoveEncoding.isCapture(picker.nextMove()));
+		assertFalse(picker.hasGeneratedQuietMoves());
+		while (picker.nextMove() != MoveEncoding.NULL_MOVE) {
+		}
+		assertTrue(picker.hasGeneratedQuietMoves());
+	}
+
+	private static void assertDrainsExactly(final String fen, final SearchBoard board, final int[] all,
+											final int hashMove, final int killer, final int otherKiller) {
+		final List<Integer> drained = drain(board, hashMove, killer, otherKiller, false);
+		final Set<Integer> unique = new HashSet<>(drained);
+		assertEquals(fen + " repeated a move: " + drained, drained.size(), unique.size());
+		final Set<Integer> expected = new HashSet<>();
+		for (final int move : all) {
+			expected.add(move);
+		}
+		assertEquals(fen, expected, unique);
+	}
+
+	private static List<Integer> drain(final SearchBoard board, final int hashMove, final int killer,
+									   final int otherKiller, final boolean skipLosingCaptures) {
+		final MoveHistory history = new MoveHistory();
+		if (otherKiller != MoveEncoding.NULL_MOVE) {
+			history.storeCutOff(board.getPly(), otherKiller, 1);
+		}
+		if (killer != MoveEncoding.NULL_MOVE) {
+			history.storeCutOff(board.getPly(), killer, 1);
+		}
+		final MovePicker picker = new MovePicker();
+		picker.reset(board, history, hashMove == MoveEncoding.NULL_MOVE ? 0 : TranspositionTable.compressMove(hashMove),
+				board.isInCheck(board.currentColor()), skipLosingCaptures);
+		final List<Integer> moves = new ArrayList<>();
+		for (int move = picker.nextMove(); move != MoveEncoding.NULL_MOVE; move = picker.nextMove()) {
+			moves.add(move);
+		}
+		return moves;
+	}
+
+	private static int[] allMoves(final SearchBoard board) {
+		final MoveList moves = new MoveList();
+		board.generateMoves(moves);
+		final int[] all = new int[moves.size()];
+		for (int i = 0; i < all.length; i++) {
+			all[i] = moves.get(i);
+		}
+		return all;
+	}
+
+	private static int firstMove(final int[] moves, final boolean capture) {
+		for (final int move : moves) {
+			if (MoveEncoding.isCapture(move) == capture && !MoveEncoding.isPromotion(move)) {
+				return move;
+			}
+		}
+		return MoveEncoding.NULL_MOVE;
+	}
+
+	private static int lastQuietMove(final int[] moves) {
+		for (int i = moves.length - 1; i >= 0; i--) {
+			if (!MoveEncoding.isCapture(moves[i]) && !MoveEncoding.isPromotion(moves[i])) {
+				return moves[i];
+			}
+		}
+		return MoveEncoding.NULL_MOVE;
+	}
+
+	private static int move(final SearchBoard board, final String from, final String to) {
+		return board.findMove(BoardUtils.getCoordinateAtPosition(from), BoardUtils.getCoordinateAtPosition(to), 0);
+	}
+
+	private static boolean isUnderPromotion(final int move) {
+		return MoveEncoding.isPromotion(move) && MoveEncoding.getPromotionType(move) != PieceType.QUEEN.ordinal();
+	}
+
+}
@@ -0,0 +1,40 @@
+package com.chess.engine.player.ai;
+
+import static org.junit.Assert.*;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Board.BoardBuilder;
+import com.chess.engine.board.Move;
+import com.chess.engine.board.Perft;
+
+public class PrincipalVariationTest {
+
+	@Test
+	public void findsMateInOneAndReportsItsLine() {
+		final Board board = BoardBuilder.fromFen("6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1");
+		final AlphaBetaWithMoveOrdering strategy = new AlphaBetaWithMoveOrdering(0, new TranspositionTable(1));
+		final Move move = strategy.execute(board, 2);
+		assertEquals("Ra8", move.toString());
+		assertEquals(move, strategy.getPrincipalVariation().get(0));
+	}
+
+	@Test
+	public void principalVariationIsAPlayableLine() {
+		final Board board = BoardBuilder.fromFen(Perft.KIWIPETE);
+		final AlphaBetaWithMoveOrdering strategy = new AlphaBetaWithMoveOrdering(0, new TranspositionTable(1));
+		final Move move = strategy.execute(board, 3);
+		final List<Move> line = strategy.getPrincipalVariation();
+		assertTrue(line.size() >= 3);
+		assertEquals(move, line.get(0));
+		Board current = board;
+		for (final Move lineMove : line) {
+			assertTrue(lineMove.toString(), current.currentPlayer().isMoveLegal(lineMove));
+			current = current.currentPlayer().makeMove(lineMove).getTransitionBoard();
+		}
+	}
+
+}
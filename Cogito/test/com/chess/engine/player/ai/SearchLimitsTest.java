@@ -0,0 +1,36 @@
+package com.chess.engine.player.ai;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Board.BoardBuilder;
+import com.chess.engine.board.Move;
+import com.chess.engine.board.Perft;
+
+public class SearchLimitsTest {
+
+	@Test
+	public void clockBudgetStaysWithinTheRemainingTime() {
+		final SearchLimits limits = SearchLimits.clock(60000, 1000);
+		assertTrue(limits.isTimed());
+		assertTrue(limits.getSoftLimitMillis() < limits.getHardLimitMillis());
+		assertTrue(limits.getHardLimitMillis() <= 60000 / 4);
+		final SearchLimits nearlyFlagged = SearchLimits.clock(100, 0);
+		assertTrue(nearlyFlagged.getHardLimitMillis() <= 100);
+		assertFalse(SearchLimits.depth(4).isTimed());
+	}
+
+	@Test
+	public void timedSearchStopsAtTheHardLimit() {
+		final Board board = BoardBuilder.fromFen(Perft.KIWIPETE);
+		final AlphaBetaWithMoveOrdering strategy = new AlphaBetaWithMoveOrdering(0, new TranspositionTable(1));
+		final long start = System.currentTimeMillis();
+		final Move move = strategy.execute(board, SearchLimits.moveTime(200));
+		final long elapsed = System.currentTimeMillis() - start;
+		assertTrue(board.currentPlayer().isMoveLegal(move));
+		assertTrue("search took " + elapsed + " ms", elapsed < 2000);
+	}
+
+}
@@ -0,0 +1,43 @@
+package com.chess.engine.player.ai;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import com.chess.engine.board.MoveEncoding;
+
+public class TranspositionTableTest {
+
+	@Test
+	public void storedEntriesAreFoundByTheirKey() {
+		final TranspositionTable table = new TranspositionTable(1);
+		final int move = MoveEncoding.create(52, 36, MoveEncoding.PAWN_JUMP, 0);
+		table.store(0x123456789ABCDEFL, move, -250, 5, TranspositionTable.LOWER_BOUND);
+		final long entry = table.probe(0x123456789ABCDEFL);
+		assertNotEquals(TranspositionTable.NO_ENTRY, entry);
+		assertEquals(TranspositionTable.compressMove(move), TranspositionTable.getMove(entry));
+		assertEquals(-250, TranspositionTable.getScore(entry));
+		assertEquals(5, TranspositionTable.getDepth(entry));
+		assertEquals(TranspositionTable.LOWER_BOUND, TranspositionTable.getBound(entry));
+		assertEquals(TranspositionTable.NO_ENTRY, table.probe(0x123456789ABCDEEL));
+	}
+
+	@Test
+	public void deepEntriesSurviveShallowStoresToTheSameBucket() {
+		final TranspositionTable table = new TranspositionTable(1);
+		final long deepKey = 7L << 32;
+		final long firstShallowKey = deepKey | 1;
+		final long secondShallowKey = deepKey | 2;
+		table.store(deepKey, MoveEncoding.NULL_MOVE, 10, 6, TranspositionTable.EXACT);
+		table.store(firstShallowKey, MoveEncoding.NULL_MOVE, 20, 1, TranspositionTable.EXACT);
+		table.store(secondShallowKey, MoveEncoding.NULL_MOVE, 30, 1, TranspositionTable.EXACT);
+		assertEquals(6, TranspositionTable.getDepth(table.probe(deepKey)));
+		assertEquals(TranspositionTable.NO_ENTRY, table.probe(firstShallowKey));
+		assertEquals(30, TranspositionTable.getScore(table.probe(secondShallowKey)));
+		table.newSearch();
+		table.store(firstShallowKey, MoveEncoding.NULL_MOVE, 20, 1, TranspositionTable.EXACT);
+		assertEquals(TranspositionTable.NO_ENTRY, table.probe(deepKey));
+		assertEquals(20, TranspositionTable.getScore(table.probe(firstShallowKey)));
+	}
+
+}